@@ -2,15 +2,17 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,45 +20,51 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transportFactory,
+                         RequestCoalescer coalescer) {
+        super(transportFactory.create(serverUrl + API_PREFIX), coalescer);
     }
 
-    public ResponseEntity<Object> getAllForUser(int userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllForUser(int userId, BookingState state, Integer from, Integer size,
+                                                @Nullable String after) {
+        return get(withCursor("?state={state}&from={from}&size={size}", after), userId,
+                pageParameters(state, from, size, after));
     }
 
-    public ResponseEntity<Object> getAllForOwner(int userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllForOwner(int userId, BookingState state, Integer from, Integer size,
+                                                 @Nullable String after) {
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", after), userId,
+                pageParameters(state, from, size, after));
     }
 
-    public ResponseEntity<Object> add(int userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> add(int userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> approve(int ownerId, int bookingId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> approve(int ownerId, int bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", ownerId, parameters, null);
     }
 
-    public ResponseEntity<Object> getByBookingId(int userId, int bookingId) {
+    public Mono<ResponseEntity<Object>> getByBookingId(int userId, int bookingId) {
         return get("/" + bookingId, userId);
     }
+
+    private static String withCursor(String path, @Nullable String after) {
+        return after == null ? path : path + "&after={after}";
+    }
+
+    private static Map<String, Object> pageParameters(BookingState state, Integer from, Integer size,
+                                                      @Nullable String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after != null) {
+            parameters.put("after", after);
+        }
+        return parameters;
+    }
 }
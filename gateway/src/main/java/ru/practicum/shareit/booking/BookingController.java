@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
@@ -27,59 +28,65 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader(name = USER_ID) int userId,
-                                      @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> add(@RequestHeader(name = USER_ID) int userId,
+                                            @RequestBody @Valid BookItemRequestDto requestDto) {
         LocalDateTime start = requestDto.getStart();
         LocalDateTime end = requestDto.getEnd();
         if (end.isBefore(start) || end.isBefore(LocalDateTime.now()) || start.isBefore(LocalDateTime.now())
                 || start.isEqual(end)) {
-            return ResponseEntity.badRequest().build();
+            return Mono.just(ResponseEntity.badRequest().build());
         }
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.add(userId, requestDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approve(@RequestHeader(name = USER_ID) int ownerId,
-                                          @PathVariable int bookingId,
-                                          @RequestParam Boolean approved) {
+    public Mono<ResponseEntity<Object>> approve(@RequestHeader(name = USER_ID) int ownerId,
+                                                @PathVariable int bookingId,
+                                                @RequestParam Boolean approved) {
         return bookingClient.approve(ownerId, bookingId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getByBookingId(@RequestHeader(name = USER_ID) int userId,
-                                                 @PathVariable int bookingId) {
+    public Mono<ResponseEntity<Object>> getByBookingId(@RequestHeader(name = USER_ID) int userId,
+                                                       @PathVariable int bookingId) {
         return bookingClient.getByBookingId(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllForUser(@RequestHeader(name = USER_ID) int userId,
-                                                @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                @Positive @RequestParam(defaultValue = "100") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllForUser(
+            @RequestHeader(name = USER_ID) int userId,
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "100") Integer size,
+            @RequestParam(required = false) String after) {
 
         Optional<BookingState> state = BookingState.from(stateParam);
 
         if (state.isEmpty()) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Unknown state: UNSUPPORTED_STATUS"));
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Unknown state: UNSUPPORTED_STATUS")));
         }
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getAllForUser(userId, state.get(), from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, after={}",
+                stateParam, userId, from, size, after);
+        return bookingClient.getAllForUser(userId, state.get(), from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllForOwner(@RequestHeader(name = USER_ID) int userId,
-                                                 @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                 @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                 @Positive @RequestParam(defaultValue = "100") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllForOwner(
+            @RequestHeader(name = USER_ID) int userId,
+            @RequestParam(name = "state", defaultValue = "all") String stateParam,
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "100") Integer size,
+            @RequestParam(required = false) String after) {
         Optional<BookingState> state = BookingState.from(stateParam);
 
         if (state.isEmpty()) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Unknown state: UNSUPPORTED_STATUS"));
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Unknown state: UNSUPPORTED_STATUS")));
         }
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getAllForOwner(userId, state.get(), from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, after={}",
+                stateParam, userId, from, size, after);
+        return bookingClient.getAllForOwner(userId, state.get(), from, size, after);
     }
 }
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Component
+public class RequestCoalescer {
+    private final Map<List<Object>, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter upstream;
+    private final Counter coalesced;
+
+    public RequestCoalescer(@Value("${shareit-server.coalescing.enabled:true}") boolean enabled,
+                            MeterRegistry registry) {
+        this.enabled = enabled;
+        this.upstream = Counter.builder("shareit.gateway.coalescing.requests")
+                .tag("result", "upstream")
+                .register(registry);
+        this.coalesced = Counter.builder("shareit.gateway.coalescing.requests")
+                .tag("result", "coalesced")
+                .register(registry);
+        Gauge.builder("shareit.gateway.coalescing.in-flight", inFlight, Map::size).register(registry);
+    }
+
+    public Mono<ResponseEntity<Object>> coalesce(List<Object> key, Supplier<Mono<ResponseEntity<Object>>> request) {
+        if (!enabled) {
+            return request.get();
+        }
+        return Mono.defer(() -> {
+            boolean[] created = new boolean[1];
+            Mono<ResponseEntity<Object>> shared = inFlight.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return share(k, request);
+            });
+            (created[0] ? upstream : coalesced).increment();
+            return shared;
+        });
+    }
+
+    /**
+     * Once a write completes, every in-flight GET is detached, so later reads never join a request that may have
+     * observed the state before the write. All keys are dropped rather than the written path only: a write to one
+     * resource changes others (approving a booking changes the item's last and next bookings). GETs that already
+     * joined keep their shared result. The map is cleared in doOnEach, before the write's result is passed
+     * downstream: doFinally would run only after the client could already have sent its next GET.
+     */
+    public <T> Mono<T> afterWrite(Mono<T> write) {
+        if (!enabled) {
+            return write;
+        }
+        return write.doOnEach(signal -> inFlight.clear())
+                .doOnCancel(inFlight::clear);
+    }
+
+    private Mono<ResponseEntity<Object>> share(List<Object> key, Supplier<Mono<ResponseEntity<Object>>> request) {
+        AtomicReference<Mono<ResponseEntity<Object>>> self = new AtomicReference<>();
+        Mono<ResponseEntity<Object>> shared = Mono.defer(request)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .share();
+        self.set(shared);
+        return shared;
+    }
+}
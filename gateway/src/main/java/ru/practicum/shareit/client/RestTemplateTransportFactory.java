@@ -0,0 +1,73 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+
+// Blocking RestTemplate is used only on the servlet stack: on Netty its calls would run on the event loop
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RestTemplateTransportFactory implements ServerTransportFactory {
+    private final RestTemplateBuilder builder;
+    private final ClientHttpRequestFactory requestFactory;
+    private final int maxResponseBytes;
+
+    public RestTemplateTransportFactory(RestTemplateBuilder builder,
+                                        ClientHttpRequestFactory shareItServerRequestFactory,
+                                        @Value("${shareit-server.http.max-response-bytes:16777216}")
+                                        int maxResponseBytes) {
+        this.builder = builder;
+        this.requestFactory = shareItServerRequestFactory;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    @Override
+    public ServerTransport create(String baseUrl) {
+        RestTemplate rest = builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl))
+                .requestFactory(() -> requestFactory)
+                .errorHandler(new PassErrorsThrough())
+                .build();
+        ResponseExtractor<ResponseEntity<Object>> extractor = response -> ServerResponses.passthrough(
+                response.getStatusCode(), response.getHeaders(), readBody(response));
+        return (method, path, headers, parameters, body) -> Mono.fromSupplier(() -> {
+            RequestCallback request = rest.httpEntityCallback(new HttpEntity<>(body, headers));
+            if (parameters != null) {
+                return rest.execute(path, method, request, extractor, parameters);
+            }
+            return rest.execute(path, method, request, extractor);
+        });
+    }
+
+    private byte[] readBody(ClientHttpResponse response) throws IOException {
+        byte[] body = response.getBody().readNBytes(maxResponseBytes + 1);
+        if (body.length > maxResponseBytes) {
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY,
+                    "Server response exceeds " + maxResponseBytes + " bytes");
+        }
+        return body;
+    }
+
+    // 4xx and 5xx server responses are passed to the client as they are, body included
+    private static class PassErrorsThrough extends DefaultResponseErrorHandler {
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+final class ServerResponses {
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH);
+
+    private ServerResponses() {
+    }
+
+    static ResponseEntity<Object> passthrough(HttpStatus status, HttpHeaders serverHeaders, @Nullable byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(serverHeaders);
+        HOP_BY_HOP_HEADERS.forEach(headers::remove);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status).headers(headers);
+        return body == null || body.length == 0 ? response.build() : response.body(body);
+    }
+}
@@ -0,0 +1,5 @@
+package ru.practicum.shareit.client;
+
+public interface ServerTransportFactory {
+    ServerTransport create(String baseUrl);
+}
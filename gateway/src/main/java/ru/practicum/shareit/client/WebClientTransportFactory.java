@@ -0,0 +1,83 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Collections;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class WebClientTransportFactory implements ServerTransportFactory, DisposableBean {
+    private final WebClient.Builder builder;
+    private final ConnectionProvider connectionProvider;
+    private final ReactorClientHttpConnector connector;
+    private final int maxResponseBytes;
+
+    public WebClientTransportFactory(WebClient.Builder builder,
+                                     @Value("${shareit-server.http.max-total:200}") int maxConnections,
+                                     @Value("${shareit-server.http.connect-timeout-ms:2000}") int connectTimeout,
+                                     @Value("${shareit-server.http.read-timeout-ms:10000}") long readTimeout,
+                                     @Value("${shareit-server.http.acquire-timeout-ms:1000}") long acquireTimeout,
+                                     @Value("${shareit-server.http.idle-evict-ms:30000}") long idleEvict,
+                                     @Value("${shareit-server.http.max-response-bytes:16777216}")
+                                     int maxResponseBytes) {
+        this.builder = builder;
+        this.maxResponseBytes = maxResponseBytes;
+        this.connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(acquireTimeout))
+                .maxIdleTime(Duration.ofMillis(idleEvict))
+                .evictInBackground(Duration.ofMillis(idleEvict))
+                .metrics(true)
+                .build();
+        this.connector = new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)
+                .responseTimeout(Duration.ofMillis(readTimeout)));
+    }
+
+    @Override
+    public ServerTransport create(String baseUrl) {
+        WebClient webClient = builder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(connector)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseBytes))
+                .build();
+        return (method, path, headers, parameters, body) -> {
+            WebClient.RequestBodySpec request = webClient.method(method)
+                    .uri(path, parameters == null ? Collections.emptyMap() : parameters)
+                    .headers(h -> h.addAll(headers));
+            WebClient.RequestHeadersSpec<?> spec = body == null ? request : request.bodyValue(body);
+            return spec.exchangeToMono(WebClientTransportFactory::toGatewayResponse)
+                    .onErrorMap(DataBufferLimitException.class, e -> new ResponseStatusException(
+                            HttpStatus.BAD_GATEWAY, "Server response exceeds " + maxResponseBytes + " bytes"));
+        };
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.dispose();
+    }
+
+    private static Mono<ResponseEntity<Object>> toGatewayResponse(ClientResponse response) {
+        HttpStatus status = response.statusCode();
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        return response.bodyToMono(byte[].class)
+                .map(body -> ServerResponses.passthrough(status, headers, body))
+                .defaultIfEmpty(ServerResponses.passthrough(status, headers, null));
+    }
+}
@@ -2,12 +2,13 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
@@ -18,28 +19,24 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transportFactory,
+                      RequestCoalescer coalescer) {
+        super(transportFactory.create(serverUrl + API_PREFIX), coalescer);
     }
 
-    public ResponseEntity<Object> addItem(ItemRequestDto requestDto, int userId) {
+    public Mono<ResponseEntity<Object>> addItem(ItemRequestDto requestDto, int userId) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> updateItem(ItemRequestDto requestDto, int userId, int itemId) {
+    public Mono<ResponseEntity<Object>> updateItem(ItemRequestDto requestDto, int userId, int itemId) {
         return patch("/" + itemId, userId, requestDto);
     }
 
-    public ResponseEntity<Object> findItemByIdAndUserId(int userId, int itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> findItemByIdAndUserId(Integer userId, int itemId, @Nullable String etag) {
+        return getIfNoneMatch("/" + itemId, userId, etag);
     }
 
-    public ResponseEntity<Object> findItemsByUserId(Integer from, Integer size, int userId) {
+    public Mono<ResponseEntity<Object>> findItemsByUserId(Integer from, Integer size, int userId) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -47,7 +44,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItemsByText(Integer from, Integer size, String text) {
+    public Mono<ResponseEntity<Object>> searchItemsByText(Integer from, Integer size, String text) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -56,7 +53,15 @@ public class ItemClient extends BaseClient {
         return get("/search?from={from}&size={size}&text={text}", null, parameters);
     }
 
-    public ResponseEntity<Object> addComment(int userId, int itemId, CommentRequestDto text) {
+    public Mono<ResponseEntity<Object>> suggestItemNames(String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> addComment(int userId, int itemId, CommentRequestDto text) {
         return post("/" + itemId + "/comment", userId, text);
     }
 }
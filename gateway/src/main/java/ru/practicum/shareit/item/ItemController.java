@@ -2,15 +2,18 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import javax.validation.constraints.Size;
@@ -28,51 +31,65 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping()
-    public ResponseEntity<Object> addItem(@RequestBody @Valid ItemRequestDto itemDto,
-                                          @RequestHeader(name = USER_ID) int userId) {
+    public Mono<ResponseEntity<Object>> addItem(@RequestBody @Valid ItemRequestDto itemDto,
+                                                @RequestHeader(name = USER_ID) int userId) {
         log.info("Adding item {} by user id={}", itemDto, userId);
         return itemClient.addItem(itemDto, userId);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestBody ItemRequestDto itemDto,
-                                             @RequestHeader(name = USER_ID) int userId,
-                                             @PathVariable int itemId) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestBody ItemRequestDto itemDto,
+                                                   @RequestHeader(name = USER_ID) int userId,
+                                                   @PathVariable int itemId) {
         log.info("Updating item id={} ny user id={} to item {}", itemId, userId, itemDto);
         return itemClient.updateItem(itemDto, userId, itemId);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(required = false, name = USER_ID) Integer userId,
-                                              @PathVariable int itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader(required = false, name = USER_ID) Integer userId,
+                                                    @PathVariable int itemId,
+                                                    @RequestHeader(required = false, name = HttpHeaders.IF_NONE_MATCH)
+                                                    String ifNoneMatch) {
         log.info("Find item with id={} by user with id={}", itemId, userId);
-        return itemClient.findItemByIdAndUserId(userId, itemId);
+        return itemClient.findItemByIdAndUserId(userId, itemId, ifNoneMatch);
     }
 
     @GetMapping()
-    public ResponseEntity<Object> getItemByUserId(@RequestHeader(name = USER_ID) int userId,
-                                                  @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                  @Positive @RequestParam(defaultValue = "100") Integer size) {
+    public Mono<ResponseEntity<Object>> getItemByUserId(@RequestHeader(name = USER_ID) int userId,
+                                                        @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                        @Positive @RequestParam(defaultValue = "100") Integer size) {
         log.info("Find items by user with id={}", userId);
         return itemClient.findItemsByUserId(from, size, userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItemsByText(@Size(max = 50) @RequestParam String text,
-                                                    @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                    @Positive @RequestParam(defaultValue = "100") Integer size) {
+    public Mono<ResponseEntity<Object>> searchItemsByText(
+            @Size(max = 50) @RequestParam String text,
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "100") Integer size) {
         log.info("Find items by text: {}", text);
         if (!StringUtils.hasText(text)) {
-            return ResponseEntity.ok()
-                    .body(Collections.emptyList());
+            return Mono.just(ResponseEntity.ok()
+                    .body(Collections.emptyList()));
         }
         return itemClient.searchItemsByText(from, size, text);
     }
 
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<Object>> suggestItemNames(@Size(max = 50) @RequestParam String prefix,
+                                                         @Positive @Max(100)
+                                                         @RequestParam(defaultValue = "10") Integer size) {
+        if (!StringUtils.hasText(prefix)) {
+            return Mono.just(ResponseEntity.ok()
+                    .body(Collections.emptyList()));
+        }
+        return itemClient.suggestItemNames(prefix, size);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(name = USER_ID) int userId,
-                                             @PathVariable int itemId,
-                                             @RequestBody @Valid CommentRequestDto text) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(name = USER_ID) int userId,
+                                                   @PathVariable int itemId,
+                                                   @RequestBody @Valid CommentRequestDto text) {
         log.info("Adding comment to item with id={} of user with id={}", itemId, userId);
         return itemClient.addComment(userId, itemId, text);
     }
@@ -2,14 +2,16 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.request.dto.ItemRequestReqDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -17,36 +19,35 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transportFactory,
+                             RequestCoalescer coalescer) {
+        super(transportFactory.create(serverUrl + API_PREFIX), coalescer);
     }
 
-    public ResponseEntity<Object> addItemRequest(ItemRequestReqDto requestDto, int userId) {
+    public Mono<ResponseEntity<Object>> addItemRequest(ItemRequestReqDto requestDto, int userId) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getOwnItemRequests(int userId) {
+    public Mono<ResponseEntity<Object>> getOwnItemRequests(int userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemRequests() {
+    public Mono<ResponseEntity<Object>> getItemRequests() {
         return get("");
     }
 
-    public ResponseEntity<Object> getAllItemRequests(int from, int size, int userId) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllItemRequests(int from, int size, int userId, @Nullable String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after == null) {
+            return get("/all?from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("after", after);
+        return get("/all?from={from}&size={size}&after={after}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequestById(int userId, int requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(int userId, int requestId) {
         return get("/" + requestId, userId);
     }
 }
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestReqDto;
 
 import javax.validation.Valid;
@@ -23,14 +24,15 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping()
-    public ResponseEntity<Object> addItemRequest(@RequestBody @Valid ItemRequestReqDto itemRequestReqDto,
-                                                 @RequestHeader(name = USER_ID) int userId) {
+    public Mono<ResponseEntity<Object>> addItemRequest(@RequestBody @Valid ItemRequestReqDto itemRequestReqDto,
+                                                       @RequestHeader(name = USER_ID) int userId) {
         log.info("Adding request {} by user id={}", itemRequestReqDto, userId);
         return itemRequestClient.addItemRequest(itemRequestReqDto, userId);
     }
 
     @GetMapping()
-    public ResponseEntity<Object> getOwnItemRequests(@RequestHeader(required = false, name = USER_ID) Integer userId) {
+    public Mono<ResponseEntity<Object>> getOwnItemRequests(
+            @RequestHeader(required = false, name = USER_ID) Integer userId) {
         if (userId != null) {
             log.info("Find requests for owner ownerId={}", userId);
             return itemRequestClient.getOwnItemRequests(userId);
@@ -40,16 +42,18 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllItemRequests(@RequestHeader(name = USER_ID) int userId,
-                                                     @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                     @Positive @RequestParam(defaultValue = "100") Integer size) {
-        log.info("Find all requests by user userId={}", userId);
-        return itemRequestClient.getAllItemRequests(from, size, userId);
+    public Mono<ResponseEntity<Object>> getAllItemRequests(
+            @RequestHeader(name = USER_ID) int userId,
+            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+            @Positive @RequestParam(defaultValue = "100") Integer size,
+            @RequestParam(required = false) String after) {
+        log.info("Find all requests by user userId={}, after={}", userId, after);
+        return itemRequestClient.getAllItemRequests(from, size, userId, after);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequest(@RequestHeader(name = USER_ID) int userId,
-                                             @PathVariable int requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequest(@RequestHeader(name = USER_ID) int userId,
+                                                   @PathVariable int requestId) {
         log.info("Find request id={} by user id={}", requestId, userId);
         return itemRequestClient.getItemRequestById(userId, requestId);
     }
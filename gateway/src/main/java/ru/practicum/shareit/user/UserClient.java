@@ -2,46 +2,57 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.dto.UserUpdRequestDto;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transportFactory,
+                      RequestCoalescer coalescer) {
+        super(transportFactory.create(serverUrl + API_PREFIX), coalescer);
     }
 
-    public ResponseEntity<Object> addUser(UserRequestDto userRequestDto) {
+    public Mono<ResponseEntity<Object>> addUser(UserRequestDto userRequestDto) {
         return post("", userRequestDto);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> updateUser(int userId, UserUpdRequestDto userUpdRequestDto) {
+    public Mono<ResponseEntity<Object>> getUsers(int from, int size, @Nullable Integer after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after == null) {
+            return get("?from={from}&size={size}", null, parameters);
+        }
+        parameters.put("after", after);
+        return get("?from={from}&size={size}&after={after}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> updateUser(int userId, UserUpdRequestDto userUpdRequestDto) {
         return patch("/" + userId, userUpdRequestDto);
     }
 
-    public ResponseEntity<Object> deleteUserById(int userId) {
+    public Mono<ResponseEntity<Object>> deleteUserById(int userId) {
         return delete("/" + userId);
     }
 
-    public ResponseEntity<Object> findUserById(int userId) {
+    public Mono<ResponseEntity<Object>> findUserById(int userId) {
         return get("/" + userId);
     }
 }
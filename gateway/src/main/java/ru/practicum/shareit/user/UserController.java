@@ -6,11 +6,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.dto.UserUpdRequestDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 @Controller
 @RequestMapping(path = "/users")
@@ -21,32 +23,45 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@RequestBody @Valid UserRequestDto userRequestDto) {
+    public Mono<ResponseEntity<Object>> addUser(@RequestBody @Valid UserRequestDto userRequestDto) {
         log.info("Adding user {}", userRequestDto);
         return userClient.addUser(userRequestDto);
     }
 
+    /**
+     * The server streams the whole list, but the gateway buffers every server response in memory, up to
+     * shareit-server.http.max-response-bytes. A larger list is answered with 502: big tables should be read
+     * page by page with size and after.
+     */
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         log.info("Get all users");
         return userClient.getAllUsers();
     }
 
+    @GetMapping(params = "size")
+    public Mono<ResponseEntity<Object>> getUsers(@PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                 @Positive @RequestParam Integer size,
+                                                 @PositiveOrZero @RequestParam(required = false) Integer after) {
+        log.info("Get users from={}, size={}, after={}", from, size, after);
+        return userClient.getUsers(from, size, after);
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@RequestBody @Valid UserUpdRequestDto userUpdRequestDto,
-                                             @Positive @PathVariable int id) {
+    public Mono<ResponseEntity<Object>> updateUser(@RequestBody @Valid UserUpdRequestDto userUpdRequestDto,
+                                                   @Positive @PathVariable int id) {
         log.info("Updating user with id={} to user {}", id, userUpdRequestDto);
         return userClient.updateUser(id, userUpdRequestDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteUserById(@Positive @PathVariable int id) {
+    public Mono<ResponseEntity<Object>> deleteUserById(@Positive @PathVariable int id) {
         log.info("Deleting user with id={}", id);
         return userClient.deleteUserById(id);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> findUserById(@Positive @PathVariable int id) {
+    public Mono<ResponseEntity<Object>> findUserById(@Positive @PathVariable int id) {
         log.info("Find user with id={}", id);
         return userClient.findUserById(id);
     }
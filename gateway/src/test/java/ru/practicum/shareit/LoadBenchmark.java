@@ -0,0 +1,102 @@
+package ru.practicum.shareit;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator for comparing gateway/server execution modes.
+ * <p>
+ * Compiled with the gateway test sources; after {@code mvn test-compile} run
+ * {@code java -cp gateway/target/test-classes ru.practicum.shareit.LoadBenchmark <url> [concurrency] [seconds] [userId]},
+ * e.g. {@code ... LoadBenchmark http://localhost:8080/items/search?text=drill 1000 30 1}.
+ * Run it once per mode (shareit.virtual-threads=false/true, spring.profiles.active=reactive) and compare
+ * the printed throughput and latency percentiles. The first 20% of the run is treated as warm-up.
+ */
+public class LoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadBenchmark <url> [concurrency] [seconds] [userId]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String userId = args.length > 3 ? args[3] : "1";
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("X-Sharer-User-Id", userId)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        long warmUpEnd = start + TimeUnit.SECONDS.toNanos(seconds) / 5;
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            results.add(workers.submit(() -> run(client, request, warmUpEnd, end, errors)));
+        }
+        List<long[]> latencies = new ArrayList<>();
+        for (Future<long[]> result : results) {
+            latencies.add(result.get());
+        }
+        workers.shutdown();
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        double measured = (end - warmUpEnd) / 1e9;
+        System.out.printf("url=%s concurrency=%d duration=%ds%n", uri, concurrency, seconds);
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n", all.length, errors.get(),
+                all.length / measured);
+        System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                percentile(all, 50), percentile(all, 90), percentile(all, 99), percentile(all, 100));
+    }
+
+    private static long[] run(HttpClient client, HttpRequest request, long warmUpEnd, long end, AtomicLong errors) {
+        long[] samples = new long[1024];
+        int count = 0;
+        long sent;
+        while ((sent = System.nanoTime()) < end) {
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    errors.incrementAndGet();
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+            if (sent >= warmUpEnd) {
+                if (count == samples.length) {
+                    samples = Arrays.copyOf(samples, count * 2);
+                }
+                samples[count++] = System.nanoTime() - sent;
+            }
+        }
+        return Arrays.copyOf(samples, count);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.client.RestTemplateTransportFactory;
+import ru.practicum.shareit.client.WebClientTransportFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit-server.http.max-response-bytes=1024")
+@ActiveProfiles("reactive")
+class ReactiveGatewayTest {
+    private static final ServerStub SERVER = ServerStub.start();
+
+    @Autowired
+    WebTestClient client;
+
+    @Autowired
+    ApplicationContext context;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::url);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop();
+    }
+
+    @Test
+    void shouldProxyRequestThroughWebClient() {
+        client.get().uri("/items/1")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(ServerStub.ITEM);
+
+        assertEquals(List.of("7"), SERVER.userIds());
+        assertTrue(context.getBeansOfType(RestTemplateTransportFactory.class).isEmpty());
+        assertEquals(1, context.getBeansOfType(WebClientTransportFactory.class).size());
+    }
+
+    @Test
+    void shouldAnswerBadGatewayForOversizedServerResponse() {
+        client.get().uri("/items/2")
+                .header("X-Sharer-User-Id", "7")
+                .exchange()
+                .expectStatus().isEqualTo(502);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Stub of shareit-server for gateway tests: a few fixed routes on a random local port.
+ */
+class ServerStub {
+    static final String ITEM = "{\"id\":1,\"name\":\"Дрель\"}";
+    static final String ETAG = "\"v1\"";
+
+    private final HttpServer server;
+    private final List<String> userIds = new CopyOnWriteArrayList<>();
+
+    private ServerStub(HttpServer server) {
+        this.server = server;
+    }
+
+    static ServerStub start() {
+        try {
+            ServerStub stub = new ServerStub(HttpServer.create(new InetSocketAddress("localhost", 0), 0));
+            stub.server.createContext("/", stub::handle);
+            stub.server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    // X-Sharer-User-Id of every request to /items/1
+    List<String> userIds() {
+        return userIds;
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getQuery();
+        switch (path) {
+            case "/items/1":
+                userIds.add(String.valueOf(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id")));
+                exchange.getResponseHeaders().add(HttpHeaders.ETAG, ETAG);
+                if (ETAG.equals(exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+                    respond(exchange, 304, null);
+                } else {
+                    respond(exchange, 200, ITEM);
+                }
+                break;
+            case "/items/2":
+                respond(exchange, 200, "[" + "{\"id\":1},".repeat(200) + "{\"id\":1}]");
+                break;
+            case "/items/404":
+                respond(exchange, 404, "{\"error\":\"Такой вещи нет\"}");
+                break;
+            case "/items/500":
+                respond(exchange, 500, "{\"error\":\"Сервер недоступен\"}");
+                break;
+            case "/users":
+                if (query != null && query.contains("size=")) {
+                    exchange.getResponseHeaders().add("X-Next-Cursor", "2");
+                }
+                respond(exchange, 200, "[{\"id\":1},{\"id\":2}]");
+                break;
+            default:
+                respond(exchange, 404, null);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
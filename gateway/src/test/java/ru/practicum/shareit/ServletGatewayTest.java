@@ -0,0 +1,101 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.client.RestTemplateTransportFactory;
+import ru.practicum.shareit.client.WebClientTransportFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit-server.http.max-response-bytes=1024")
+class ServletGatewayTest {
+    private static final ServerStub SERVER = ServerStub.start();
+
+    @Autowired
+    TestRestTemplate rest;
+
+    @Autowired
+    ApplicationContext context;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", SERVER::url);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop();
+    }
+
+    @Test
+    void shouldPassStatusContentTypeAndEtagThrough() {
+        ResponseEntity<String> response = get("/items/1", new HttpHeaders());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(response.getHeaders().getContentType()));
+        assertEquals(ServerStub.ETAG, response.getHeaders().getETag());
+        assertEquals(ServerStub.ITEM, response.getBody());
+        assertEquals(1, context.getBeansOfType(RestTemplateTransportFactory.class).size());
+        assertTrue(context.getBeansOfType(WebClientTransportFactory.class).isEmpty());
+    }
+
+    @Test
+    void shouldPassNotModifiedThrough() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(ServerStub.ETAG);
+
+        ResponseEntity<String> response = get("/items/1", headers);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ServerStub.ETAG, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void shouldPassNextCursorThrough() {
+        ResponseEntity<String> response = get("/users?from=0&size=2", new HttpHeaders());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals("[{\"id\":1},{\"id\":2}]", response.getBody());
+    }
+
+    @Test
+    void shouldPassClientAndServerErrorBodiesThrough() {
+        ResponseEntity<String> notFound = get("/items/404", new HttpHeaders());
+        ResponseEntity<String> serverError = get("/items/500", new HttpHeaders());
+
+        assertEquals(HttpStatus.NOT_FOUND, notFound.getStatusCode());
+        assertEquals("{\"error\":\"Такой вещи нет\"}", notFound.getBody());
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(notFound.getHeaders().getContentType()));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, serverError.getStatusCode());
+        assertEquals("{\"error\":\"Сервер недоступен\"}", serverError.getBody());
+    }
+
+    @Test
+    void shouldAnswerBadGatewayForOversizedServerResponse() {
+        ResponseEntity<String> response = get("/items/2", new HttpHeaders());
+
+        assertEquals(HttpStatus.BAD_GATEWAY, response.getStatusCode());
+    }
+
+    private ResponseEntity<String> get(String path, HttpHeaders headers) {
+        headers.set("X-Sharer-User-Id", "7");
+        return rest.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
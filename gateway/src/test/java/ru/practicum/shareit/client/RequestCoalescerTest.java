@@ -0,0 +1,108 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+    private final RequestCoalescer coalescer = new RequestCoalescer(true, new SimpleMeterRegistry());
+    private final List<Sinks.One<ResponseEntity<Object>>> upstream = new ArrayList<>();
+    private final Supplier<Mono<ResponseEntity<Object>>> request = () -> {
+        Sinks.One<ResponseEntity<Object>> sink = Sinks.one();
+        upstream.add(sink);
+        return sink.asMono();
+    };
+
+    @Test
+    void shouldShareOneUpstreamCallBetweenIdenticalGets() {
+        List<Object> first = new ArrayList<>();
+        List<Object> second = new ArrayList<>();
+
+        coalescer.coalesce(key(1, null), request).subscribe(first::add);
+        coalescer.coalesce(key(1, null), request).subscribe(second::add);
+        upstream.get(0).tryEmitValue(ResponseEntity.ok("items"));
+
+        assertEquals(1, upstream.size());
+        assertEquals(List.of(ResponseEntity.ok("items")), first);
+        assertEquals(List.of(ResponseEntity.ok("items")), second);
+    }
+
+    @Test
+    void shouldCallUpstreamAgainAfterCompletion() {
+        coalescer.coalesce(key(1, null), request).subscribe();
+        upstream.get(0).tryEmitValue(ResponseEntity.ok("items"));
+
+        coalescer.coalesce(key(1, null), request).subscribe();
+
+        assertEquals(2, upstream.size());
+    }
+
+    @Test
+    void shouldCallUpstreamAgainAfterError() {
+        List<Throwable> errors = new ArrayList<>();
+        coalescer.coalesce(key(1, null), request).subscribe(response -> { }, errors::add);
+        upstream.get(0).tryEmitError(new IllegalStateException("server is down"));
+
+        coalescer.coalesce(key(1, null), request).subscribe();
+
+        assertEquals(1, errors.size());
+        assertEquals(2, upstream.size());
+    }
+
+    @Test
+    void shouldNotMergeGetsOfDifferentUsersOrParameters() {
+        coalescer.coalesce(key(1, null), request).subscribe();
+        coalescer.coalesce(key(2, null), request).subscribe();
+        coalescer.coalesce(key(1, Map.of("from", 0)), request).subscribe();
+        coalescer.coalesce(key(1, Map.of("from", 10)), request).subscribe();
+
+        assertEquals(4, upstream.size());
+    }
+
+    @Test
+    void shouldNotJoinGetStartedBeforeCompletedWrite() {
+        List<Object> before = new ArrayList<>();
+        coalescer.coalesce(key(1, null), request).subscribe(before::add);
+
+        coalescer.afterWrite(Mono.just(ResponseEntity.ok("updated"))).subscribe();
+        coalescer.coalesce(key(1, null), request).subscribe();
+        upstream.get(0).tryEmitValue(ResponseEntity.ok("items"));
+
+        assertEquals(2, upstream.size());
+        assertEquals(List.of(ResponseEntity.ok("items")), before);
+    }
+
+    @Test
+    void shouldNotJoinPreWriteGetFromWriteResponseHandler() {
+        coalescer.coalesce(key(1, null), request).subscribe();
+
+        coalescer.afterWrite(Mono.just(ResponseEntity.ok("updated")))
+                .subscribe(response -> coalescer.coalesce(key(1, null), request).subscribe());
+
+        assertEquals(2, upstream.size());
+    }
+
+    @Test
+    void shouldCallUpstreamForEveryGetWhenDisabled() {
+        RequestCoalescer disabled = new RequestCoalescer(false, new SimpleMeterRegistry());
+
+        disabled.coalesce(key(1, null), request).subscribe();
+        disabled.coalesce(key(1, null), request).subscribe();
+
+        assertEquals(2, upstream.size());
+    }
+
+    private static List<Object> key(int userId, Map<String, Object> parameters) {
+        return Arrays.asList("transport", "/items", userId, parameters);
+    }
+}
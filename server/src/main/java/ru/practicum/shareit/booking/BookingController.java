@@ -1,14 +1,17 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResp;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.util.List;
 
 import static ru.practicum.shareit.constants.Constatnts.USER_ID;
+import static ru.practicum.shareit.pagination.NextCursor.withNextCursor;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -37,19 +40,26 @@ public class BookingController {
     }
 
     @GetMapping()
-    public List<BookingDtoResp> getAllForUser(@RequestHeader(name = USER_ID) int userId,
-                                              @RequestParam() String state,
-                                              @RequestParam Integer from,
-                                              @RequestParam Integer size) {
-        return bookingService.getAllForUser(from, size, userId, state);
+    public ResponseEntity<List<BookingDtoResp>> getAllForUser(@RequestHeader(name = USER_ID) int userId,
+                                                              @RequestParam() String state,
+                                                              @RequestParam Integer from,
+                                                              @RequestParam Integer size,
+                                                              @RequestParam(required = false) String after) {
+        List<BookingDtoResp> result = after == null
+                ? bookingService.getAllForUser(from, size, userId, state)
+                : bookingService.getAllForUserAfter(after, size, userId, state);
+        return withNextCursor(result, size, last -> Cursor.encode(last.getStart(), last.getId()));
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoResp> getAllForOwner(@RequestHeader(name = USER_ID) int userId,
-                                               @RequestParam() String state,
-                                               @RequestParam Integer from,
-                                               @RequestParam Integer size) {
-        return bookingService.getAllForOwner(from, size, userId, state);
+    public ResponseEntity<List<BookingDtoResp>> getAllForOwner(@RequestHeader(name = USER_ID) int userId,
+                                                               @RequestParam() String state,
+                                                               @RequestParam Integer from,
+                                                               @RequestParam Integer size,
+                                                               @RequestParam(required = false) String after) {
+        List<BookingDtoResp> result = after == null
+                ? bookingService.getAllForOwner(from, size, userId, state)
+                : bookingService.getAllForOwnerAfter(after, size, userId, state);
+        return withNextCursor(result, size, last -> Cursor.encode(last.getStart(), last.getId()));
     }
-
 }
@@ -6,7 +6,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.constants.Status;
+import ru.practicum.shareit.item.dto.ItemBookingStatsDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,7 +24,7 @@ public interface BookingDao extends JpaRepository<Booking, Integer> {
     @Query("select b " +
             "from Booking as b " +
             "join b.booker as u " +
-            "where u.id = ?1  order by b.start desc ")
+            "where u.id = ?1  order by b.start desc, b.id desc")
     List<Booking> findAllByBooker(int bookerId, Pageable pageable);
 
     @Query("select b " +
@@ -40,7 +42,7 @@ public interface BookingDao extends JpaRepository<Booking, Integer> {
     @Query("select b " +
             "from Booking as b " +
             "join b.booker as u " +
-            "where u.id = ?1 and (b.start > CURRENT_TIMESTAMP or b.end > CURRENT_TIMESTAMP) order by b.start desc ")
+            "where u.id = ?1 and (b.start > CURRENT_TIMESTAMP or b.end > CURRENT_TIMESTAMP) order by b.start desc, b.id desc")
     List<Booking> findFutureByBooker(int bookerId, Pageable pageable);
 
     @Query("select b " +
@@ -52,7 +54,7 @@ public interface BookingDao extends JpaRepository<Booking, Integer> {
     @Query("select b " +
             "from Booking as b " +
             "join b.booker as u " +
-            "where u.id = ?1 and b.end < CURRENT_TIMESTAMP order by b.start desc ")
+            "where u.id = ?1 and b.end < CURRENT_TIMESTAMP order by b.start desc, b.id desc")
     List<Booking> findPastByBooker(int bookerId, Pageable pageable);
 
     @Query("select b " +
@@ -64,13 +66,13 @@ public interface BookingDao extends JpaRepository<Booking, Integer> {
     @Query("select b " +
             "from Booking as b " +
             "join b.booker as u " +
-            "where u.id = ?1 and b.start < CURRENT_TIMESTAMP and b.end > CURRENT_TIMESTAMP order by b.start desc ")
+            "where u.id = ?1 and b.start < CURRENT_TIMESTAMP and b.end > CURRENT_TIMESTAMP order by b.start desc, b.id desc")
     List<Booking> findCurrentByBooker(int bookerId, Pageable pageable);
 
     @Query("select b " +
             "from Booking as b " +
             "join b.booker as u " +
-            "where u.id = ?1 and b.status = ?2 order by b.start desc ")
+            "where u.id = ?1 and b.status = ?2 order by b.start desc, b.id desc")
     List<Booking> findWaitingOrRejectedByBooker(int bookerId, Status state, Pageable pageable);
 
     @Query("select b " +
@@ -82,7 +84,7 @@ public interface BookingDao extends JpaRepository<Booking, Integer> {
     @Query("select b " +
             "from Booking as b " +
             "join fetch b.item as i join fetch b.booker as u " +
-            "where i.ownerId = ?1 order by b.start desc ")
+            "where i.ownerId = ?1 order by b.start desc, b.id desc")
     List<Booking> findAllByOwner(int ownerId, Pageable pageable);
 
     @Query("select b " +
@@ -94,7 +96,7 @@ public interface BookingDao extends JpaRepository<Booking, Integer> {
     @Query("select b " +
             "from Booking as b " +
             "join fetch b.item as i join fetch b.booker as u " +
-            "where i.ownerId = ?1 and (b.start > CURRENT_TIMESTAMP or b.end > CURRENT_TIMESTAMP) order by b.start desc ")
+            "where i.ownerId = ?1 and (b.start > CURRENT_TIMESTAMP or b.end > CURRENT_TIMESTAMP) order by b.start desc, b.id desc")
     List<Booking> findFutureByOwner(int ownerId, Pageable pageable);
 
     @Query("select b " +
@@ -106,7 +108,7 @@ public interface BookingDao extends JpaRepository<Booking, Integer> {
     @Query("select b " +
             "from Booking as b " +
             "join fetch b.item as i join fetch b.booker as u " +
-            "where i.ownerId = ?1 and b.end < CURRENT_TIMESTAMP order by b.start desc ")
+            "where i.ownerId = ?1 and b.end < CURRENT_TIMESTAMP order by b.start desc, b.id desc")
     List<Booking> findPastByOwner(int ownerId, Pageable pageable);
 
     @Query("select b " +
@@ -118,7 +120,7 @@ public interface BookingDao extends JpaRepository<Booking, Integer> {
     @Query("select b " +
             "from Booking as b " +
             "join fetch b.item as i join fetch b.booker as u " +
-            "where i.ownerId = ?1 and b.start < CURRENT_TIMESTAMP and b.end > CURRENT_TIMESTAMP order by b.start desc ")
+            "where i.ownerId = ?1 and b.start < CURRENT_TIMESTAMP and b.end > CURRENT_TIMESTAMP order by b.start desc, b.id desc")
     List<Booking> findCurrentByOwner(int ownerId, Pageable pageable);
 
     @Query("select b " +
@@ -130,7 +132,7 @@ public interface BookingDao extends JpaRepository<Booking, Integer> {
     @Query("select b " +
             "from Booking as b " +
             "join fetch b.item as i join fetch b.booker as u " +
-            "where i.ownerId = ?1 and b.status = ?2 order by b.start desc ")
+            "where i.ownerId = ?1 and b.status = ?2 order by b.start desc, b.id desc")
     List<Booking> findWaitingOrRejectedByOwner(int ownerId, Status state, Pageable pageable);
 
     @Query("select b " +
@@ -141,13 +143,103 @@ public interface BookingDao extends JpaRepository<Booking, Integer> {
 
     @Query("select b " +
             "from Booking as b " +
-            "join fetch b.item as i " +
-            "where i.id in ?1 and b.start < CURRENT_TIMESTAMP order by b.start desc")
-    List<Booking> findBookingWithLastNearestDateByItemId(List<Integer> itemsId);
+            "join b.booker as u " +
+            "where u.id = ?1 and " +
+            "(b.start < ?2 or (b.start = ?2 and b.id < ?3)) order by b.start desc, b.id desc")
+    List<Booking> findAllByBookerAfter(int bookerId, LocalDateTime start, int id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "join b.booker as u " +
+            "where u.id = ?1 and (b.start > CURRENT_TIMESTAMP or b.end > CURRENT_TIMESTAMP) and " +
+            "(b.start < ?2 or (b.start = ?2 and b.id < ?3)) order by b.start desc, b.id desc")
+    List<Booking> findFutureByBookerAfter(int bookerId, LocalDateTime start, int id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "join b.booker as u " +
+            "where u.id = ?1 and b.end < CURRENT_TIMESTAMP and " +
+            "(b.start < ?2 or (b.start = ?2 and b.id < ?3)) order by b.start desc, b.id desc")
+    List<Booking> findPastByBookerAfter(int bookerId, LocalDateTime start, int id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "join b.booker as u " +
+            "where u.id = ?1 and b.start < CURRENT_TIMESTAMP and b.end > CURRENT_TIMESTAMP and " +
+            "(b.start < ?2 or (b.start = ?2 and b.id < ?3)) order by b.start desc, b.id desc")
+    List<Booking> findCurrentByBookerAfter(int bookerId, LocalDateTime start, int id, Pageable pageable);
 
     @Query("select b " +
             "from Booking as b " +
-            "join fetch b.item as i " +
-            "where i.id in ?1 and b.start > CURRENT_TIMESTAMP order by b.start ")
-    List<Booking> findBookingWithNextNearestDateByItemId(List<Integer> itemId);
+            "join b.booker as u " +
+            "where u.id = ?1 and b.status = ?2 and " +
+            "(b.start < ?3 or (b.start = ?3 and b.id < ?4)) order by b.start desc, b.id desc")
+    List<Booking> findWaitingOrRejectedByBookerAfter(int bookerId, Status state, LocalDateTime start, int id,
+                                                     Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "join fetch b.item as i join fetch b.booker as u " +
+            "where i.ownerId = ?1 and " +
+            "(b.start < ?2 or (b.start = ?2 and b.id < ?3)) order by b.start desc, b.id desc")
+    List<Booking> findAllByOwnerAfter(int ownerId, LocalDateTime start, int id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "join fetch b.item as i join fetch b.booker as u " +
+            "where i.ownerId = ?1 and (b.start > CURRENT_TIMESTAMP or b.end > CURRENT_TIMESTAMP) and " +
+            "(b.start < ?2 or (b.start = ?2 and b.id < ?3)) order by b.start desc, b.id desc")
+    List<Booking> findFutureByOwnerAfter(int ownerId, LocalDateTime start, int id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "join fetch b.item as i join fetch b.booker as u " +
+            "where i.ownerId = ?1 and b.end < CURRENT_TIMESTAMP and " +
+            "(b.start < ?2 or (b.start = ?2 and b.id < ?3)) order by b.start desc, b.id desc")
+    List<Booking> findPastByOwnerAfter(int ownerId, LocalDateTime start, int id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "join fetch b.item as i join fetch b.booker as u " +
+            "where i.ownerId = ?1 and b.start < CURRENT_TIMESTAMP and b.end > CURRENT_TIMESTAMP and " +
+            "(b.start < ?2 or (b.start = ?2 and b.id < ?3)) order by b.start desc, b.id desc")
+    List<Booking> findCurrentByOwnerAfter(int ownerId, LocalDateTime start, int id, Pageable pageable);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "join fetch b.item as i join fetch b.booker as u " +
+            "where i.ownerId = ?1 and b.status = ?2 and " +
+            "(b.start < ?3 or (b.start = ?3 and b.id < ?4)) order by b.start desc, b.id desc")
+    List<Booking> findWaitingOrRejectedByOwnerAfter(int ownerId, Status state, LocalDateTime start, int id,
+                                                    Pageable pageable);
+
+    @Query(value = "select ranked.id from (" +
+            "select b.id, row_number() over (partition by b.item_id order by b.start_time desc, b.id desc) as rn " +
+            "from bookings as b where b.item_id in (?1) and b.start_time < CURRENT_TIMESTAMP) as ranked " +
+            "where ranked.rn = 1", nativeQuery = true)
+    List<Integer> findLastBookingIdsByItemIds(List<Integer> itemsId);
+
+    @Query(value = "select ranked.id from (" +
+            "select b.id, row_number() over (partition by b.item_id order by b.start_time, b.id) as rn " +
+            "from bookings as b where b.item_id in (?1) and b.start_time > CURRENT_TIMESTAMP " +
+            "and b.status <> 'REJECTED') as ranked " +
+            "where ranked.rn = 1", nativeQuery = true)
+    List<Integer> findNextBookingIdsByItemIds(List<Integer> itemsId);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingStatsDto(b.item.id, count(b), " +
+            "min(case when b.start > CURRENT_TIMESTAMP then b.start end)) " +
+            "from Booking as b where b.item.id in ?1 group by b.item.id")
+    List<ItemBookingStatsDto> findStatsByItemIds(List<Integer> itemsId);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "join fetch b.item as i join fetch b.booker as u " +
+            "where b.id in ?1")
+    List<Booking> findAllWithItemAndBookerByIdIn(List<Integer> ids);
+
+    @Query("select b " +
+            "from Booking as b " +
+            "join fetch b.item as i join fetch b.booker as u " +
+            "where b.status in ?1 and b.end > CURRENT_TIMESTAMP")
+    List<Booking> findActiveByStatusIn(List<Status> statuses);
 }
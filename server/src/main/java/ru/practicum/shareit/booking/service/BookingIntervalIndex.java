@@ -0,0 +1,220 @@
+package ru.practicum.shareit.booking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.constants.Status;
+import ru.practicum.shareit.transaction.TransactionHooks;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Занятые интервалы вещей (брони в статусах WAITING и APPROVED) для проверки пересечений за O(log n).
+ * <p>
+ * Индекс живёт в памяти одного экземпляра сервера: второй экземпляр о его блокировках не знает
+ * и может забронировать те же даты. Источником истины остаётся база данных.
+ */
+@Component
+public class BookingIntervalIndex {
+    private final Logger log = LoggerFactory.getLogger(BookingIntervalIndex.class);
+
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final Map<Integer, ItemSlots> slotsByItem = new ConcurrentHashMap<>();
+    private BookingDao bookingDao;
+
+    public BookingIntervalIndex(BookingDao bookingDao) {
+        this.bookingDao = bookingDao;
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        List<Booking> bookings = bookingDao.findActiveByStatusIn(ACTIVE_STATUSES);
+        bookings.forEach(this::put);
+        log.info("Индекс бронирований загружен, броней: {}", bookings.size());
+    }
+
+    public boolean isFree(int itemId, LocalDateTime start, LocalDateTime end) {
+        ItemSlots slots = slotsByItem.get(itemId);
+        return slots == null || slots.isFree(start, end);
+    }
+
+    public Optional<Booking> saveIfFree(int itemId, LocalDateTime start, LocalDateTime end, Supplier<Booking> saver) {
+        Optional<Booking> saved = slotsByItem.computeIfAbsent(itemId, id -> new ItemSlots())
+                .saveIfFree(start, end, saver);
+        // Бронь сохраняется в транзакции вызывающего сервиса: при откате слот освобождается
+        saved.ifPresent(booking -> TransactionHooks.afterRollback(() -> removeNow(booking)));
+        return saved;
+    }
+
+    public void put(Booking booking) {
+        slotsByItem.computeIfAbsent(booking.getItem().getId(), id -> new ItemSlots()).add(toInterval(booking));
+    }
+
+    // Слот освобождается только после коммита: до него пересекающуюся бронь принять нельзя, а при откате
+    // бронь в базе остаётся активной и индекс менять не нужно
+    public void remove(Booking booking) {
+        TransactionHooks.afterCommit(() -> removeNow(booking));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.index.evict-ms:600000}")
+    public void evictExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        slotsByItem.values().forEach(slots -> slots.evictEndedBefore(now));
+    }
+
+    private void removeNow(Booking booking) {
+        ItemSlots slots = slotsByItem.get(booking.getItem().getId());
+        if (slots != null) {
+            slots.remove(toInterval(booking));
+        }
+    }
+
+    private static Interval toInterval(Booking booking) {
+        return new Interval(booking.getId(), booking.getStart(), booking.getEnd());
+    }
+
+    /**
+     * Непересекающиеся слоты, упорядоченные по началу. У таких слотов концы тоже упорядочены,
+     * поэтому пересечение с [start, end) возможно только со слотом, ближайшим слева к end.
+     * <p>
+     * Вместо synchronized используется ReentrantLock: saveIfFree держит блокировку на время записи в базу,
+     * а synchronized закрепил бы виртуальный поток за потоком-носителем.
+     */
+    private static class ItemSlots {
+        private final NavigableMap<LocalDateTime, Slot> slots = new TreeMap<>();
+        private final Lock lock = new ReentrantLock();
+
+        boolean isFree(LocalDateTime start, LocalDateTime end) {
+            lock.lock();
+            try {
+                Map.Entry<LocalDateTime, Slot> floor = slots.lowerEntry(end);
+                return floor == null || !floor.getValue().end.isAfter(start);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Optional<Booking> saveIfFree(LocalDateTime start, LocalDateTime end, Supplier<Booking> saver) {
+            lock.lock();
+            try {
+                evictEndedBefore(LocalDateTime.now());
+                if (!isFree(start, end)) {
+                    return Optional.empty();
+                }
+                Booking saved = saver.get();
+                add(toInterval(saved));
+                return Optional.of(saved);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void add(Interval interval) {
+            lock.lock();
+            try {
+                merge(interval);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Пересекающиеся брони (например, загруженные из старых данных) сливаются в один слот
+        private void merge(Interval interval) {
+            Slot merged = new Slot(interval);
+            Map.Entry<LocalDateTime, Slot> floor = slots.lowerEntry(interval.end);
+            while (floor != null && floor.getValue().end.isAfter(interval.start)) {
+                merged.absorb(floor.getValue());
+                slots.remove(floor.getKey());
+                floor = slots.lowerEntry(interval.end);
+            }
+            Slot sameStart = slots.remove(merged.start);
+            if (sameStart != null) {
+                merged.absorb(sameStart);
+            }
+            slots.put(merged.start, merged);
+        }
+
+        void remove(Interval interval) {
+            lock.lock();
+            try {
+                Map.Entry<LocalDateTime, Slot> owner = slots.floorEntry(interval.start);
+                if (owner != null && owner.getValue().intervals.remove(interval)) {
+                    slots.remove(owner.getKey());
+                    owner.getValue().intervals.forEach(this::merge);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void evictEndedBefore(LocalDateTime now) {
+            lock.lock();
+            try {
+                Map.Entry<LocalDateTime, Slot> first = slots.firstEntry();
+                while (first != null && !first.getValue().end.isAfter(now)) {
+                    slots.remove(first.getKey());
+                    first = slots.firstEntry();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static class Slot {
+        private final Set<Interval> intervals = new HashSet<>();
+        private LocalDateTime start;
+        private LocalDateTime end;
+
+        Slot(Interval interval) {
+            intervals.add(interval);
+            start = interval.start;
+            end = interval.end;
+        }
+
+        void absorb(Slot other) {
+            intervals.addAll(other.intervals);
+            start = start.isBefore(other.start) ? start : other.start;
+            end = end.isAfter(other.end) ? end : other.end;
+        }
+    }
+
+    private static class Interval {
+        private final int bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Interval(int bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Interval)) {
+                return false;
+            }
+            Interval other = (Interval) o;
+            return bookingId == other.bookingId && start.equals(other.start) && end.equals(other.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bookingId, start, end);
+        }
+    }
+}
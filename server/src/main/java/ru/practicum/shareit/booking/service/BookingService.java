@@ -16,5 +16,9 @@ public interface BookingService {
 
     List<BookingDtoResp> getAllForOwner(Integer from, Integer size, int ownerId, String state);
 
+    List<BookingDtoResp> getAllForUserAfter(String after, Integer size, int userId, String state);
+
+    List<BookingDtoResp> getAllForOwnerAfter(String after, Integer size, int ownerId, String state);
+
 
 }
@@ -4,7 +4,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dao.BookingDao;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResp;
@@ -16,9 +18,13 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemBookingSummaryStore;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserIdCache;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,14 +35,23 @@ public class BookingServiceImpl implements BookingService {
     private BookingDao bookingDao;
     private ItemDao itemDao;
     private UserDao userDao;
+    private UserIdCache userIdCache;
+    private BookingIntervalIndex bookingIndex;
+    private ItemBookingSummaryStore summaryStore;
 
-    public BookingServiceImpl(BookingDao bookingDao, ItemDao itemService, UserDao userService) {
+    public BookingServiceImpl(BookingDao bookingDao, ItemDao itemService, UserDao userService,
+                              UserIdCache userIdCache, BookingIntervalIndex bookingIndex,
+                              ItemBookingSummaryStore summaryStore) {
         this.bookingDao = bookingDao;
         this.itemDao = itemService;
         this.userDao = userService;
+        this.userIdCache = userIdCache;
+        this.bookingIndex = bookingIndex;
+        this.summaryStore = summaryStore;
     }
 
     @Override
+    @Transactional
     public BookingDtoResp add(BookingDto bookingDto, int userId) {
         Item item = getItem(bookingDto.getItemId());
         if (item.getOwnerId() == userId) {
@@ -45,12 +60,16 @@ public class BookingServiceImpl implements BookingService {
         }
         User user = getUser(userId);
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
-        BookingDtoResp result = BookingMapper.toBookingDtoResp(bookingDao.save(booking));
+        Booking saved = bookingIndex.saveIfFree(item.getId(), booking.getStart(), booking.getEnd(),
+                () -> bookingDao.save(booking)).orElseThrow(() -> overlapException(item.getId()));
+        summaryStore.refresh(Collections.singletonList(item.getId()));
+        BookingDtoResp result = BookingMapper.toBookingDtoResp(saved);
         log.info("Пользователь id={}, добавил бронирование id={}", userId, result.getId());
         return result;
     }
 
     @Override
+    @Transactional
     public BookingDtoResp approve(int ownerId, int bookingId, boolean approved) {
         Booking booking = bookingDao.findById(bookingId).orElseThrow(() -> new NotFoundException("Запись не найдена"));
         if (booking.getItem().getOwnerId() != ownerId) {
@@ -61,13 +80,21 @@ public class BookingServiceImpl implements BookingService {
             log.info("Владелец id={}, попытка повторного утверждения", ownerId);
             throw new ValidationException("Вещь уже утверждена");
         }
-        if (approved) {
+        Booking saved;
+        if (approved && booking.getStatus() == Status.REJECTED) {
             booking.setStatus(Status.APPROVED);
+            saved = bookingIndex.saveIfFree(booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                    () -> bookingDao.save(booking)).orElseThrow(() -> overlapException(booking.getItem().getId()));
         } else {
-            booking.setStatus(Status.REJECTED);
+            booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
+            saved = bookingDao.save(booking);
+            if (!approved) {
+                bookingIndex.remove(saved);
+            }
         }
+        summaryStore.refresh(Collections.singletonList(saved.getItem().getId()));
 
-        BookingDtoResp result = BookingMapper.toBookingDtoResp(bookingDao.save(booking));
+        BookingDtoResp result = BookingMapper.toBookingDtoResp(saved);
         log.info("Владелец id={}, для брони id={} установил статус {}", ownerId, bookingId, result.getStatus());
         return result;
     }
@@ -79,66 +106,86 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDtoResp> getAllForUser(Integer from, Integer size, int userId, String state) {
-        getUser(userId);
-        List<Booking> result = null;
+        checkUser(userId);
+        return toBookingDtoResps(findForBooker(userId, checkState(state), offsetPage(from, size), null));
+    }
+
+    @Override
+    public List<BookingDtoResp> getAllForOwner(Integer from, Integer size, int ownerId, String state) {
+        checkUser(ownerId);
+        return toBookingDtoResps(findForOwner(ownerId, checkState(state), offsetPage(from, size), null));
+    }
 
+    @Override
+    public List<BookingDtoResp> getAllForUserAfter(String after, Integer size, int userId, String state) {
+        checkUser(userId);
         State stateStatus = checkState(state);
-        Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
-        switch (stateStatus) {
-            case ALL:
-                result = bookingDao.findAllByBooker(userId, pagebale);
-                break;
+        Cursor cursor = Cursor.decode(after);
+        return toBookingDtoResps(findForBooker(userId, stateStatus, PageRequest.of(0, size), cursor));
+    }
+
+    @Override
+    public List<BookingDtoResp> getAllForOwnerAfter(String after, Integer size, int ownerId, String state) {
+        checkUser(ownerId);
+        State stateStatus = checkState(state);
+        Cursor cursor = Cursor.decode(after);
+        return toBookingDtoResps(findForOwner(ownerId, stateStatus, PageRequest.of(0, size), cursor));
+    }
+
+    private List<Booking> findForBooker(int userId, State state, Pageable page, @Nullable Cursor cursor) {
+        switch (state) {
             case FUTURE:
-                result = bookingDao.findFutureByBooker(userId, pagebale);
-                break;
+                return cursor == null ? bookingDao.findFutureByBooker(userId, page)
+                        : bookingDao.findFutureByBookerAfter(userId, cursor.getTime(), cursor.getId(), page);
             case PAST:
-                result = bookingDao.findPastByBooker(userId, pagebale);
-                break;
+                return cursor == null ? bookingDao.findPastByBooker(userId, page)
+                        : bookingDao.findPastByBookerAfter(userId, cursor.getTime(), cursor.getId(), page);
             case CURRENT:
-                result = bookingDao.findCurrentByBooker(userId, pagebale);
-                break;
+                return cursor == null ? bookingDao.findCurrentByBooker(userId, page)
+                        : bookingDao.findCurrentByBookerAfter(userId, cursor.getTime(), cursor.getId(), page);
             case WAITING:
-                result = bookingDao.findWaitingOrRejectedByBooker(userId, Status.WAITING, pagebale);
-                break;
             case REJECTED:
-                result = bookingDao.findWaitingOrRejectedByBooker(userId, Status.REJECTED, pagebale);
-                break;
+                Status status = Status.valueOf(state.name());
+                return cursor == null ? bookingDao.findWaitingOrRejectedByBooker(userId, status, page)
+                        : bookingDao.findWaitingOrRejectedByBookerAfter(userId, status, cursor.getTime(),
+                        cursor.getId(), page);
+            case ALL:
+            default:
+                return cursor == null ? bookingDao.findAllByBooker(userId, page)
+                        : bookingDao.findAllByBookerAfter(userId, cursor.getTime(), cursor.getId(), page);
         }
-
-        return result.stream()
-                .map(BookingMapper::toBookingDtoResp)
-                .collect(Collectors.toList());
     }
 
-    @Override
-    public List<BookingDtoResp> getAllForOwner(Integer from, Integer size, int ownerId, String state) {
-        getUser(ownerId);
-        List<Booking> result = null;
-
-        State stateStatus = checkState(state);
-        Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
-        switch (stateStatus) {
-            case ALL:
-                result = bookingDao.findAllByOwner(ownerId, pagebale);
-                break;
+    private List<Booking> findForOwner(int ownerId, State state, Pageable page, @Nullable Cursor cursor) {
+        switch (state) {
             case FUTURE:
-                result = bookingDao.findFutureByOwner(ownerId, pagebale);
-                break;
+                return cursor == null ? bookingDao.findFutureByOwner(ownerId, page)
+                        : bookingDao.findFutureByOwnerAfter(ownerId, cursor.getTime(), cursor.getId(), page);
             case PAST:
-                result = bookingDao.findPastByOwner(ownerId, pagebale);
-                break;
+                return cursor == null ? bookingDao.findPastByOwner(ownerId, page)
+                        : bookingDao.findPastByOwnerAfter(ownerId, cursor.getTime(), cursor.getId(), page);
             case CURRENT:
-                result = bookingDao.findCurrentByOwner(ownerId, pagebale);
-                break;
+                return cursor == null ? bookingDao.findCurrentByOwner(ownerId, page)
+                        : bookingDao.findCurrentByOwnerAfter(ownerId, cursor.getTime(), cursor.getId(), page);
             case WAITING:
-                result = bookingDao.findWaitingOrRejectedByOwner(ownerId, Status.WAITING, pagebale);
-                break;
             case REJECTED:
-                result = bookingDao.findWaitingOrRejectedByOwner(ownerId, Status.REJECTED, pagebale);
-                break;
+                Status status = Status.valueOf(state.name());
+                return cursor == null ? bookingDao.findWaitingOrRejectedByOwner(ownerId, status, page)
+                        : bookingDao.findWaitingOrRejectedByOwnerAfter(ownerId, status, cursor.getTime(),
+                        cursor.getId(), page);
+            case ALL:
+            default:
+                return cursor == null ? bookingDao.findAllByOwner(ownerId, page)
+                        : bookingDao.findAllByOwnerAfter(ownerId, cursor.getTime(), cursor.getId(), page);
         }
+    }
 
-        return result.stream()
+    private static Pageable offsetPage(Integer from, Integer size) {
+        return PageRequest.of(from > 0 ? from / size : 0, size);
+    }
+
+    private static List<BookingDtoResp> toBookingDtoResps(List<Booking> bookings) {
+        return bookings.stream()
                 .map(BookingMapper::toBookingDtoResp)
                 .collect(Collectors.toList());
     }
@@ -152,6 +199,11 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    private ValidationException overlapException(int itemId) {
+        log.info("Вещь id={} уже забронирована на пересекающиеся даты", itemId);
+        return new ValidationException("Вещь уже забронирована на эти даты");
+    }
+
     private Booking getBooking(int bookingId, int userId) {
         return bookingDao.findBookingByIdAndBookerId(bookingId, userId).orElseThrow(() -> new NotFoundException("Запись не найдена"));
     }
@@ -167,4 +219,10 @@ public class BookingServiceImpl implements BookingService {
     private User getUser(int userId) {
         return userDao.findById(userId).orElseThrow(() -> new NotFoundException("Такой пользователь не найден"));
     }
+
+    private void checkUser(int userId) {
+        if (!userIdCache.exists(userId)) {
+            throw new NotFoundException("Такой пользователь не найден");
+        }
+    }
 }
@@ -2,4 +2,6 @@ package ru.practicum.shareit.constants;
 
 public class Constatnts {
     public static final String USER_ID = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+    public static final String USERS_CACHE = "users";
 }
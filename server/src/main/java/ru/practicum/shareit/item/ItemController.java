@@ -3,8 +3,12 @@ package ru.practicum.shareit.item;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDetailDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoPers;
 import ru.practicum.shareit.item.service.ItemService;
@@ -40,9 +44,20 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemDtoPers getItemById(@RequestHeader(required = false, name = USER_ID) Integer userId, @PathVariable int itemId) {
+    public ResponseEntity<ItemDtoPers> getItemById(@RequestHeader(required = false, name = USER_ID) Integer userId,
+                                                   @PathVariable int itemId,
+                                                   @RequestHeader(required = false, name = HttpHeaders.IF_NONE_MATCH)
+                                                   String ifNoneMatch) {
         log.info("Запрос вещи id={} пользователем id={}", itemId, userId);
-        return itemService.findItemByIdAndUserId(userId, itemId);
+        ItemDetailDto detail = itemService.findItemDetail(userId, itemId);
+        if (detail.getEtag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(detail.getEtag())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(detail.getEtag())
+                .body(detail.getItem());
     }
 
     @GetMapping()
@@ -61,6 +76,12 @@ public class ItemController {
         return itemService.searchItemsByText(from, size, text);
     }
 
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam String prefix,
+                                         @RequestParam(defaultValue = "10") Integer size) {
+        return itemService.suggestItemNames(prefix, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader(name = USER_ID) int userId, @PathVariable int itemId,
                                  @RequestBody CommentDto text) {
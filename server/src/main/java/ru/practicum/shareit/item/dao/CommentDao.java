@@ -2,11 +2,30 @@ package ru.practicum.shareit.item.dao;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.dto.ItemCountDto;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentDao extends JpaRepository<Comment, Integer> {
-    @Query("select c from Comment as c where c.itemId in ?1")
-    List<Comment> findCommentsByItemsId(List<Integer> itemsId);
+    @Query("select new ru.practicum.shareit.item.dto.ItemCommentDto(c.itemId, c.id, c.text, u.name, c.created) " +
+            "from Comment as c, User as u " +
+            "where u.id = c.authorName and c.itemId in ?1 order by c.created, c.id")
+    List<ItemCommentDto> findCommentDtosByItemsId(List<Integer> itemsId);
+
+    @Query(value = "select ranked.id from (" +
+            "select c.id, row_number() over (partition by c.item_id order by c.create_time desc, c.id desc) as rn " +
+            "from comments as c where c.item_id in (?1)) as ranked " +
+            "where ranked.rn <= ?2", nativeQuery = true)
+    List<Integer> findLastCommentIdsByItemIds(List<Integer> itemsId, int limit);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemCommentDto(c.itemId, c.id, c.text, u.name, c.created) " +
+            "from Comment as c, User as u " +
+            "where u.id = c.authorName and c.id in ?1 order by c.created, c.id")
+    List<ItemCommentDto> findCommentDtosByIds(List<Integer> ids);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemCountDto(c.itemId, count(c)) " +
+            "from Comment as c where c.itemId in ?1 group by c.itemId")
+    List<ItemCountDto> countByItemIds(List<Integer> itemsId);
 }
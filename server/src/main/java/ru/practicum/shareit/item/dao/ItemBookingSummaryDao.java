@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryDao extends JpaRepository<ItemBookingSummary, Integer> {
+    @Query("select s.itemId from ItemBookingSummary as s where s.refreshAt < ?1")
+    List<Integer> findItemIdsToRefresh(LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemBookingSummary as s where s.itemId in ?1 order by s.itemId")
+    List<ItemBookingSummary> lockAllById(List<Integer> itemIds);
+}
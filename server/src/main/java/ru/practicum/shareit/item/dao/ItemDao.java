@@ -1,6 +1,5 @@
 package ru.practicum.shareit.item.dao;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -11,10 +10,23 @@ import java.util.List;
 
 @Repository
 public interface ItemDao extends JpaRepository<Item, Integer> {
-    Page<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String text1, String text2, Pageable pagebale);
+    @Query("select i from Item as i where i.available = true " +
+            "and (upper(i.name) like upper(concat('%', ?1, '%')) escape '\\' " +
+            "or upper(i.description) like upper(concat('%', ?1, '%')) escape '\\') order by i.id")
+    List<Item> searchAvailable(String text, Pageable pageable);
 
-    List<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String text1, String text2);
+    @Query(value = "select * from items as i where i.available = true " +
+            "and i.search_vector @@ to_tsquery('russian', ?1) " +
+            "order by ts_rank(i.search_vector, to_tsquery('russian', ?1)) desc, i.id", nativeQuery = true)
+    List<Item> searchAvailableFullText(String tsQuery, Pageable pageable);
+
+    List<Item> findByOwnerIdOrderById(int ownerId, Pageable pageable);
+
+    List<Item> findByIdGreaterThanOrderById(int id, Pageable pageable);
 
     @Query("select i from Item as i where i.requestId in ?1")
     List<Item> findItemsByRequestIds(List<Integer> listRequestId);
+
+    @Query("select i.id from Item as i where i.id not in (select s.itemId from ItemBookingSummary as s)")
+    List<Integer> findIdsWithoutBookingSummary();
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ItemCommentDto {
+    private int itemId;
+    private CommentDto comment;
+
+    public ItemCommentDto(int itemId, int id, String text, String authorName, LocalDateTime created) {
+        this(itemId, new CommentDto(id, text, authorName, created));
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ItemDetailDto {
+    private String etag;
+    private ItemDtoPers item;
+    private LocalDateTime refreshAt;
+}
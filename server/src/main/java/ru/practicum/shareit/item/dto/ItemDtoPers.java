@@ -20,4 +20,5 @@ public class ItemDtoPers {
     private BookingDto nextBooking;
     private List<CommentDto> comments;
     private Integer requestId;
+    private Integer commentsCount;
 }
@@ -1,13 +1,16 @@
 package ru.practicum.shareit.item.mapper;
 
 import org.springframework.util.StringUtils;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoPers;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public class ItemMapper {
@@ -23,6 +26,11 @@ public class ItemMapper {
     }
 
     public static ItemDtoPers toItemDtoPers(Item item, Booking last, Booking next, List<CommentDto> comments) {
+        return toItemDtoPers(item, last, next, comments, comments.size());
+    }
+
+    public static ItemDtoPers toItemDtoPers(Item item, Booking last, Booking next, List<CommentDto> comments,
+                                            int commentsCount) {
         return new ItemDtoPers(
                 item.getId(),
                 item.getOwnerId(),
@@ -32,7 +40,56 @@ public class ItemMapper {
                 last == null ? null : BookingMapper.bookingDto(last),
                 next == null ? null : BookingMapper.bookingDto(next),
                 comments,
-                item.getRequestId()
+                item.getRequestId(),
+                commentsCount
+        );
+    }
+
+    public static ItemDtoPers toItemDtoPers(Item item, ItemBookingSummary summary, List<CommentDto> comments,
+                                            int commentsCount) {
+        return new ItemDtoPers(
+                item.getId(),
+                item.getOwnerId(),
+                item.getName(),
+                item.getDescription(),
+                item.isAvailable(),
+                summary == null || summary.getLastBookingId() == null ? null : new BookingDto(
+                        summary.getLastBookingId(),
+                        summary.getLastStart(),
+                        summary.getLastEnd(),
+                        item.getId(),
+                        summary.getLastBookerId(),
+                        summary.getLastStatus()),
+                summary == null || summary.getNextBookingId() == null ? null : new BookingDto(
+                        summary.getNextBookingId(),
+                        summary.getNextStart(),
+                        summary.getNextEnd(),
+                        item.getId(),
+                        summary.getNextBookerId(),
+                        summary.getNextStatus()),
+                comments,
+                item.getRequestId(),
+                commentsCount
+        );
+    }
+
+    public static ItemBookingSummary toItemBookingSummary(int itemId, Booking last, Booking next, long bookingsCount,
+                                                          long commentsCount, LocalDateTime refreshAt) {
+        return new ItemBookingSummary(
+                itemId,
+                last == null ? null : last.getId(),
+                last == null ? null : last.getBooker().getId(),
+                last == null ? null : last.getStart(),
+                last == null ? null : last.getEnd(),
+                last == null ? null : last.getStatus(),
+                next == null ? null : next.getId(),
+                next == null ? null : next.getBooker().getId(),
+                next == null ? null : next.getStart(),
+                next == null ? null : next.getEnd(),
+                next == null ? null : next.getStatus(),
+                bookingsCount,
+                commentsCount,
+                refreshAt
         );
     }
 
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.constants.Status;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+    @Id
+    private int itemId;
+    private Integer lastBookingId;
+    private Integer lastBookerId;
+    private LocalDateTime lastStart;
+    private LocalDateTime lastEnd;
+    @Enumerated(EnumType.STRING)
+    private Status lastStatus;
+    private Integer nextBookingId;
+    private Integer nextBookerId;
+    private LocalDateTime nextStart;
+    private LocalDateTime nextEnd;
+    @Enumerated(EnumType.STRING)
+    private Status nextStatus;
+    private long bookingsCount;
+    private long commentsCount;
+    private LocalDateTime refreshAt;
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.items.search", havingValue = "fts")
+public class FullTextItemSearch implements ItemSearch {
+    private ItemDao itemDao;
+
+    public FullTextItemSearch(ItemDao itemDao) {
+        this.itemDao = itemDao;
+    }
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size) {
+        String query = toPrefixQuery(text);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return itemDao.searchAvailableFullText(query, PageRequest.of(from > 0 ? from / size : 0, size));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    static String toPrefixQuery(String text) {
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dao.CommentDao;
+import ru.practicum.shareit.item.dao.ItemBookingSummaryDao;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.dto.ItemBookingStatsDto;
+import ru.practicum.shareit.item.dto.ItemCountDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Component
+@Transactional
+public class ItemBookingSummaryStore {
+    private final Logger log = LoggerFactory.getLogger(ItemBookingSummaryStore.class);
+
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private ItemBookingSummaryDao summaryDao;
+    private ItemDao itemDao;
+    private BookingDao bookingDao;
+    private CommentDao commentDao;
+    private ItemDetailCache detailCache;
+
+    public ItemBookingSummaryStore(ItemBookingSummaryDao summaryDao, ItemDao itemDao, BookingDao bookingDao,
+                                   CommentDao commentDao, ItemDetailCache detailCache) {
+        this.summaryDao = summaryDao;
+        this.itemDao = itemDao;
+        this.bookingDao = bookingDao;
+        this.commentDao = commentDao;
+        this.detailCache = detailCache;
+    }
+
+    // Устаревшие сводки на чтении только пересчитываются в памяти, сохраняют их запись и плановое обновление
+    @Transactional(readOnly = true)
+    public Map<Integer, ItemBookingSummary> get(List<Integer> itemIds) {
+        Map<Integer, ItemBookingSummary> summaries = summaryDao.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, s -> s));
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> stale = itemIds.stream()
+                .filter(id -> isStale(summaries.get(id), now))
+                .collect(Collectors.toList());
+        compute(stale).forEach(s -> summaries.put(s.getItemId(), s));
+        return summaries;
+    }
+
+    public void create(int itemId) {
+        summaryDao.save(ItemMapper.toItemBookingSummary(itemId, null, null, 0, 0, null));
+    }
+
+    // Строки сводок блокируются до пересчёта: параллельная бронь той же вещи ждёт коммита этой транзакции
+    // и пересчитывает сводку уже с её бронью, а не затирает её
+    public List<ItemBookingSummary> refresh(List<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        summaryDao.lockAllById(itemIds);
+        List<ItemBookingSummary> summaries = summaryDao.saveAll(compute(itemIds));
+        itemIds.forEach(detailCache::invalidate);
+        return summaries;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.booking-summary.refresh-ms:60000}")
+    public void refreshStale() {
+        refreshInBatches(summaryDao.findItemIdsToRefresh(LocalDateTime.now()));
+    }
+
+    // Вещи, добавленные до появления сводок: новые получают сводку при создании
+    @EventListener(ApplicationReadyEvent.class)
+    public void createMissing() {
+        refreshInBatches(itemDao.findIdsWithoutBookingSummary());
+    }
+
+    private void refreshInBatches(List<Integer> itemIds) {
+        for (int from = 0; from < itemIds.size(); from += REFRESH_BATCH_SIZE) {
+            refresh(itemIds.subList(from, Math.min(from + REFRESH_BATCH_SIZE, itemIds.size())));
+        }
+        if (!itemIds.isEmpty()) {
+            log.info("Обновлены сводки бронирований вещей: {}", itemIds.size());
+        }
+    }
+
+    private List<ItemBookingSummary> compute(List<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> lastIds = bookingDao.findLastBookingIdsByItemIds(itemIds);
+        List<Integer> nextIds = bookingDao.findNextBookingIdsByItemIds(itemIds);
+        Map<Integer, Booking> bookings = findBookingsById(lastIds, nextIds);
+        Map<Integer, Booking> lasts = byItemId(lastIds, bookings);
+        Map<Integer, Booking> nexts = byItemId(nextIds, bookings);
+        Map<Integer, ItemBookingStatsDto> stats = bookingDao.findStatsByItemIds(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingStatsDto::getItemId, s -> s));
+        Map<Integer, Long> comments = commentDao.countByItemIds(itemIds).stream()
+                .collect(Collectors.toMap(ItemCountDto::getItemId, ItemCountDto::getCount));
+
+        return itemIds.stream()
+                .map(id -> {
+                    ItemBookingStatsDto itemStats = stats.get(id);
+                    return ItemMapper.toItemBookingSummary(id, lasts.get(id), nexts.get(id),
+                            itemStats == null ? 0 : itemStats.getBookingsCount(),
+                            comments.getOrDefault(id, 0L),
+                            itemStats == null ? null : itemStats.getFirstFutureStart());
+                })
+                .collect(Collectors.toList());
+    }
+
+    private boolean isStale(ItemBookingSummary summary, LocalDateTime now) {
+        return summary == null || (summary.getRefreshAt() != null && !summary.getRefreshAt().isAfter(now));
+    }
+
+    private Map<Integer, Booking> findBookingsById(List<Integer> lastIds, List<Integer> nextIds) {
+        List<Integer> ids = new ArrayList<>(lastIds);
+        ids.addAll(nextIds);
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return bookingDao.findAllWithItemAndBookerByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, b -> b));
+    }
+
+    private Map<Integer, Booking> byItemId(List<Integer> bookingIds, Map<Integer, Booking> bookings) {
+        return bookingIds.stream()
+                .map(bookings::get)
+                .collect(Collectors.toMap(b -> b.getItem().getId(), b -> b));
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDetailDto;
+import ru.practicum.shareit.transaction.TransactionHooks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Component
+public class ItemDetailCache {
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+    private final Map<Integer, Long> versions = new ConcurrentHashMap<>();
+    private final Map<Integer, LocalDateTime> refreshAts = new ConcurrentHashMap<>();
+    private final Cache<List<Integer>, ItemDetailDto> cache;
+
+    public ItemDetailCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.items.detail-cache.size:10000}") long maxSize,
+                           @Value("${shareit.items.detail-cache.ttl-ms:300000}") long ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemDetail");
+    }
+
+    public ItemDetailDto get(int itemId, Integer userId, Function<String, ItemDetailDto> load) {
+        expireBookings(itemId);
+        List<Integer> key = Arrays.asList(itemId, userId);
+        String etag = etag(itemId, userId);
+        ItemDetailDto detail = cache.getIfPresent(key);
+        if (detail != null && detail.getEtag().equals(etag)) {
+            return detail;
+        }
+        detail = load.apply(etag);
+        String current = etag(itemId, userId);
+        if (!current.equals(etag)) {
+            detail = load.apply(current);
+        }
+        if (detail.getRefreshAt() != null) {
+            refreshAts.merge(itemId, detail.getRefreshAt(), (a, b) -> a.isBefore(b) ? a : b);
+        }
+        cache.put(key, detail);
+        return detail;
+    }
+
+    // Внутри транзакции версия меняется ещё раз после коммита: чтение между записью и коммитом
+    // могло закэшировать старые данные под промежуточным etag
+    public void invalidate(int itemId) {
+        versions.merge(itemId, 1L, Long::sum);
+        TransactionHooks.afterCommit(() -> versions.merge(itemId, 1L, Long::sum));
+    }
+
+    // Наступил момент смены последней/следующей брони: версия меняется, иначе клиент со старым etag
+    // получал бы 304 и устаревшие брони. Момент хранится отдельно от кэша, чтобы пережить вытеснение записи
+    private void expireBookings(int itemId) {
+        LocalDateTime refreshAt = refreshAts.get(itemId);
+        if (refreshAt != null && !refreshAt.isAfter(LocalDateTime.now()) && refreshAts.remove(itemId, refreshAt)) {
+            versions.merge(itemId, 1L, Long::sum);
+        }
+    }
+
+    private String etag(int itemId, Integer userId) {
+        return "\"" + epoch + "-" + itemId + "-" + versions.getOrDefault(itemId, 0L) + "-" + userId + "\"";
+    }
+}
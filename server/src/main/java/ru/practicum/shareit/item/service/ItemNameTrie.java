@@ -0,0 +1,138 @@
+package ru.practicum.shareit.item.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetLoader;
+import ru.practicum.shareit.transaction.TransactionHooks;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Префиксное дерево названий доступных вещей. Каждый узел хранит готовый список лучших topK названий
+ * своего поддерева, поэтому подсказка стоит O(длина префикса + limit). Рейтинг названия — число доступных
+ * вещей с ним, при равенстве названия идут по алфавиту.
+ */
+@Component
+public class ItemNameTrie {
+    private final Logger log = LoggerFactory.getLogger(ItemNameTrie.class);
+
+    private final Node root = new Node();
+    private final Map<Integer, String> names = new HashMap<>();
+    private final Map<String, Integer> counts = new HashMap<>();
+    private final Comparator<String> byRank = Comparator.comparing((String name) -> -counts.getOrDefault(name, 0))
+            .thenComparing(Comparator.naturalOrder());
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private ItemDao itemDao;
+    private int topK;
+
+    public ItemNameTrie(ItemDao itemDao, @Value("${shareit.items.suggest.top-k:100}") int topK) {
+        this.itemDao = itemDao;
+        this.topK = topK;
+    }
+
+    @PostConstruct
+    public void load() {
+        KeysetLoader.forEach(itemDao::findByIdGreaterThanOrderById, Item::getId, this::index);
+        log.info("Загружены названия вещей в префиксное дерево: {}", names.size());
+    }
+
+    public void index(Item item) {
+        String previous = replace(item.getId(), item.isAvailable() ? item.getName() : null);
+        TransactionHooks.afterRollback(() -> replace(item.getId(), previous));
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            String key = prefix.toLowerCase();
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            return new ArrayList<>(node.top.subList(0, Math.min(limit, node.top.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String replace(int id, String name) {
+        lock.writeLock().lock();
+        try {
+            String previous = name == null ? names.remove(id) : names.put(id, name);
+            if (previous != null) {
+                counts.computeIfPresent(previous, (key, count) -> count > 1 ? count - 1 : null);
+                update(previous);
+            }
+            if (name != null) {
+                counts.merge(name, 1, Integer::sum);
+                update(name);
+            }
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Изменился рейтинг одного названия: пересчитываются только узлы на его пути, снизу вверх
+    private void update(String name) {
+        String key = name.toLowerCase();
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        path.push(node);
+        for (char c : key.toCharArray()) {
+            node = node.child(c);
+            path.push(node);
+        }
+        node.mark(name, counts.containsKey(name));
+        for (int depth = key.length(); depth >= 0; depth--) {
+            Node current = path.pop();
+            current.top = rank(current);
+            if (depth > 0 && current.top.isEmpty()) {
+                path.peek().children.remove(key.charAt(depth - 1));
+            }
+        }
+    }
+
+    private List<String> rank(Node node) {
+        Set<String> candidates = new HashSet<>(node.terminal);
+        node.children.values().forEach(child -> candidates.addAll(child.top));
+        List<String> ranked = new ArrayList<>(candidates);
+        ranked.sort(byRank);
+        return ranked.size() > topK ? new ArrayList<>(ranked.subList(0, topK)) : ranked;
+    }
+
+    // Большинство узлов — звенья одного названия, поэтому коллекции создаются только при первой записи
+    private static class Node {
+        private Map<Character, Node> children = Collections.emptyMap();
+        private Set<String> terminal = Collections.emptySet();
+        private List<String> top = Collections.emptyList();
+
+        Node child(char c) {
+            if (children.isEmpty()) {
+                children = new HashMap<>(2);
+            }
+            return children.computeIfAbsent(c, key -> new Node());
+        }
+
+        void mark(String name, boolean present) {
+            if (present && terminal.isEmpty()) {
+                terminal = new HashSet<>(2);
+            }
+            if (present) {
+                terminal.add(name);
+            } else {
+                terminal.remove(name);
+            }
+        }
+    }
+}
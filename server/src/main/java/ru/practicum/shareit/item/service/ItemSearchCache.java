@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.transaction.TransactionHooks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class ItemSearchCache {
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<List<Object>, List<ItemDto>> cache;
+
+    public ItemSearchCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.items.search-cache.size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+    }
+
+    public List<ItemDto> get(String text, Integer from, Integer size, Supplier<List<ItemDto>> search) {
+        List<Object> key = List.of(generation.get(), text.toLowerCase(), from, size);
+        return cache.get(key, k -> Collections.unmodifiableList(search.get()));
+    }
+
+    // Как и в ItemDetailCache, внутри транзакции поколение меняется ещё раз после коммита: поиск между
+    // записью и коммитом мог сохранить старую выдачу под новым поколением
+    public void invalidate() {
+        generation.incrementAndGet();
+        TransactionHooks.afterCommit(generation::incrementAndGet);
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.item.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetLoader;
+import ru.practicum.shareit.transaction.TransactionHooks;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.items.search", havingValue = "index", matchIfMissing = true)
+public class ItemSearchIndex implements ItemSearch {
+    private final Logger log = LoggerFactory.getLogger(ItemSearchIndex.class);
+
+    private static final int GRAM = 3;
+
+    private final Map<Integer, IndexedItem> items = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+    private ItemDao itemDao;
+
+    public ItemSearchIndex(ItemDao itemDao) {
+        this.itemDao = itemDao;
+    }
+
+    @PostConstruct
+    public void load() {
+        KeysetLoader.forEach(itemDao::findByIdGreaterThanOrderById, Item::getId, this::index);
+        log.info("Загружены вещи в поисковый индекс: {}", items.size());
+    }
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size) {
+        List<Integer> ids = findIds(text);
+        int offset = from > 0 ? from / size * size : 0;
+        if (offset >= ids.size()) {
+            return Collections.emptyList();
+        }
+        List<Integer> pageIds = ids.subList(offset, Math.min(offset + size, ids.size()));
+        Map<Integer, Item> found = itemDao.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        return pageIds.stream()
+                .map(found::get)
+                .filter(item -> item != null && item.isAvailable())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        IndexedItem previous = replace(item.getId(), new IndexedItem(item.getId(), normalize(item.getName()),
+                normalize(item.getDescription()), item.isAvailable()));
+        TransactionHooks.afterRollback(() -> replace(item.getId(), previous));
+    }
+
+    List<Integer> findIds(String text) {
+        String query = normalize(text);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return candidates(query).stream()
+                .map(items::get)
+                .filter(item -> item != null && item.available)
+                .map(item -> new int[]{item.score(query), item.id})
+                .filter(match -> match[0] > 0)
+                .sorted(Comparator.comparingInt((int[] match) -> -match[0]).thenComparingInt(match -> match[1]))
+                .map(match -> match[1])
+                .collect(Collectors.toList());
+    }
+
+    private synchronized IndexedItem replace(int id, IndexedItem indexed) {
+        IndexedItem previous = indexed == null ? items.remove(id) : items.put(id, indexed);
+        Set<String> oldGrams = previous == null ? Collections.emptySet() : previous.grams();
+        Set<String> newGrams = indexed == null ? Collections.emptySet() : indexed.grams();
+        oldGrams.stream()
+                .filter(gram -> !newGrams.contains(gram))
+                .forEach(gram -> postings.computeIfPresent(gram, (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                }));
+        newGrams.forEach(gram -> postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id));
+        return previous;
+    }
+
+    // Запрос не длиннее граммы сам есть грамма: его список и есть ответ, без перебора всех вещей
+    private Collection<Integer> candidates(String query) {
+        if (query.length() <= GRAM) {
+            Set<Integer> ids = postings.get(query);
+            return ids == null ? Collections.emptySet() : new ArrayList<>(ids);
+        }
+        Set<Integer> smallest = null;
+        for (String gram : grams(query, GRAM)) {
+            Set<Integer> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        return new ArrayList<>(smallest);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+
+    private static Set<String> grams(String text, int length) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + length <= text.length(); i++) {
+            grams.add(text.substring(i, i + length));
+        }
+        return grams;
+    }
+
+    private static class IndexedItem {
+        private final int id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        IndexedItem(int id, String name, String description, boolean available) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.available = available;
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            for (int length = 1; length <= GRAM; length++) {
+                grams.addAll(ItemSearchIndex.grams(name, length));
+                grams.addAll(ItemSearchIndex.grams(description, length));
+            }
+            return grams;
+        }
+
+        int score(String query) {
+            int score = 0;
+            if (name.startsWith(query)) {
+                score += 4;
+            } else if (name.contains(query)) {
+                score += 2;
+            }
+            if (description.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDetailDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoPers;
 
@@ -15,9 +16,13 @@ public interface ItemService {
 
     ItemDtoPers findItemByIdAndUserId(Integer ownerId, int itemId);
 
+    ItemDetailDto findItemDetail(Integer userId, int itemId);
+
     List<ItemDtoPers> findItemsByUserId(Integer from, Integer size, int userId);
 
     List<ItemDto> searchItemsByText(Integer from, Integer size, String text);
 
+    List<String> suggestItemNames(String prefix, Integer size);
+
     CommentDto addComment(int userId, int itemId, CommentDto text);
 }
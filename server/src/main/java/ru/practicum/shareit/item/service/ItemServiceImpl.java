@@ -2,10 +2,11 @@ package ru.practicum.shareit.item.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dao.BookingDao;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.constants.Status;
@@ -14,52 +15,85 @@ import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.CommentDao;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.dto.ItemCountDto;
+import ru.practicum.shareit.item.dto.ItemDetailDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoPers;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ItemServiceImpl implements ItemService {
     private final Logger log = LoggerFactory.getLogger(ItemServiceImpl.class);
 
+    private static final int MAX_SUGGEST_PREFIX = 50;
+    private static final int MAX_SUGGESTIONS = 100;
+
     private ItemDao itemDao;
     private BookingDao bookingDao;
     private CommentDao commentDao;
+    private ItemBookingSummaryStore summaryStore;
+    private ItemSearch itemSearch;
+    private ItemSearchCache searchCache;
+    private ItemNameTrie nameTrie;
+    private ItemDetailCache detailCache;
     private UserService userService;
-
-    public ItemServiceImpl(ItemDao itemDao, BookingDao bookingDao, CommentDao commentDao, UserService userService) {
+    private int commentsLimit;
+
+    public ItemServiceImpl(ItemDao itemDao, BookingDao bookingDao, CommentDao commentDao,
+                           ItemBookingSummaryStore summaryStore, ItemSearch itemSearch, ItemSearchCache searchCache,
+                           ItemNameTrie nameTrie, ItemDetailCache detailCache, UserService userService,
+                           @Value("${shareit.items.comments-limit:10}") int commentsLimit) {
+        if (commentsLimit < 0) {
+            throw new IllegalArgumentException("Лимит комментариев не может быть отрицательным: " + commentsLimit);
+        }
         this.itemDao = itemDao;
         this.bookingDao = bookingDao;
         this.commentDao = commentDao;
+        this.summaryStore = summaryStore;
+        this.itemSearch = itemSearch;
+        this.searchCache = searchCache;
+        this.nameTrie = nameTrie;
+        this.detailCache = detailCache;
         this.userService = userService;
+        this.commentsLimit = commentsLimit;
     }
 
     @Override
+    @Transactional
     public ItemDto addItem(ItemDto itemDto, int userId) {
         checkOwner(userId);
-        Item item = ItemMapper.toItemWithoutId(itemDto, userId);
-        ItemDto result = ItemMapper.toItemDto(itemDao.save(item));
+        Item item = itemDao.save(ItemMapper.toItemWithoutId(itemDto, userId));
+        summaryStore.create(item.getId());
+        itemSearch.index(item);
+        nameTrie.index(item);
+        searchCache.invalidate();
+        ItemDto result = ItemMapper.toItemDto(item);
         log.info("Добавлена вещь: {}, пользователем id={}", result.getName(), userId);
         return result;
     }
 
     @Override
+    @Transactional
     public ItemDto updateItem(ItemDto itemDto, int userId, int itemId) {
         checkOwner(userId);
         Item itemBefore = ItemMapper.toItem(findItemById(itemId));
         checkOwnerToItem(userId, itemBefore.getOwnerId());
-        Item itemAfter = ItemMapper.combineItemWithItemDto(itemBefore, itemDto);
-        ItemDto result = ItemMapper.toItemDto(itemDao.save(itemAfter));
+        Item itemAfter = itemDao.save(ItemMapper.combineItemWithItemDto(itemBefore, itemDto));
+        itemSearch.index(itemAfter);
+        nameTrie.index(itemAfter);
+        detailCache.invalidate(itemId);
+        searchCache.invalidate();
+        ItemDto result = ItemMapper.toItemDto(itemAfter);
         log.info("Обновлена вещь {}, пользователем id={}", result.getId(), userId);
         return result;
     }
@@ -71,63 +105,60 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemDtoPers findItemByIdAndUserId(Integer ownerId, int itemId) {
-        Item item = getItem(itemId);
-
-        Booking last = null;
-        Booking next = null;
-        if (ownerId != null && item.getOwnerId() == ownerId) {
-            List<Booking> lasts = bookingDao.findBookingWithLastNearestDateByItemId(Collections.singletonList(itemId));
-            last = CollectionUtils.isEmpty(lasts) ? null : lasts.stream().findFirst().get();
-            List<Booking> nexts = bookingDao.findBookingWithNextNearestDateByItemId(Collections.singletonList(itemId));
-            next = CollectionUtils.isEmpty(nexts) ? null :
-                    nexts.stream()
-                            .filter(i -> i.getStatus() != Status.REJECTED)
-                            .findFirst().orElse(null);
+        return loadItemDetail(ownerId, itemId, null).getItem();
+    }
 
-        }
-        return ItemMapper.toItemDtoPers(item, last, next, getListCommentsDto(itemId));
+    @Override
+    public ItemDetailDto findItemDetail(Integer userId, int itemId) {
+        return detailCache.get(itemId, userId, etag -> loadItemDetail(userId, itemId, etag));
     }
 
     @Override
     public List<ItemDtoPers> findItemsByUserId(Integer from, Integer size, int userId) {
-        List<Item> items;
-
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
+        List<Item> items = itemDao.findByOwnerIdOrderById(userId, pagebale);
 
-        items = itemDao.findAll(pagebale).stream().filter(item -> item.getOwnerId() == userId)
-                .sorted(Comparator.comparingInt(Item::getId))
-                .collect(Collectors.toList());
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
 
         List<Integer> groupItemId = items.stream().map(Item::getId).collect(Collectors.toList());
 
-        Map<Integer, Booking> lasts = bookingDao.findBookingWithLastNearestDateByItemId(groupItemId).stream()
-                .collect(Collectors.toMap(b -> b.getItem().getId(), b -> b,
-                        (o1, o2) -> o1.getStart().isBefore(o2.getStart()) ? o1 : o2));
-        Map<Integer, Booking> nexts = bookingDao.findBookingWithNextNearestDateByItemId(groupItemId).stream()
-                .collect(Collectors.toMap(b -> b.getItem().getId(), b -> b,
-                        (o1, o2) -> o1.getStart().isBefore(o2.getStart()) ? o1 : o2));
+        Map<Integer, ItemBookingSummary> summaries = summaryStore.get(groupItemId);
 
-        List<Comment> comments = commentDao.findCommentsByItemsId(groupItemId);
-        Function<Comment, CommentDto> commentToCommentDto = comment -> CommentMapper.toCommentDto(comment,
-                getUserNamesById().get(comment.getAuthorName()));
+        Map<Integer, List<CommentDto>> comments = lastComments(groupItemId).stream()
+                .collect(Collectors.groupingBy(ItemCommentDto::getItemId,
+                        Collectors.mapping(ItemCommentDto::getComment, Collectors.toList())));
+        Map<Integer, Integer> commentsCounts = commentDao.countByItemIds(groupItemId).stream()
+                .collect(Collectors.toMap(ItemCountDto::getItemId, count -> (int) count.getCount()));
         return items.stream()
-                .map(item -> ItemMapper
-                        .toItemDtoPers(item, lasts.get(item.getId()), nexts.get(item.getId()), comments.stream()
-                                .map(commentToCommentDto)
-                                .collect(Collectors.toList())))
+                .map(item -> ItemMapper.toItemDtoPers(item, summaries.get(item.getId()),
+                        comments.getOrDefault(item.getId(), Collections.emptyList()),
+                        commentsCounts.getOrDefault(item.getId(), 0)))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<ItemDto> searchItemsByText(Integer from, Integer size, String text) {
-            Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
-            return itemDao.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(text, text, pagebale).stream()
-                    .filter(Item::isAvailable)
-                    .map(ItemMapper::toItemDto)
-                    .collect(Collectors.toList());
+        return searchCache.get(text, from, size, () -> itemSearch.search(text, from, size).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList()));
     }
 
     @Override
+    public List<String> suggestItemNames(String prefix, Integer size) {
+        if (prefix.length() > MAX_SUGGEST_PREFIX || size < 1 || size > MAX_SUGGESTIONS) {
+            throw new ValidationException("Префикс длиннее " + MAX_SUGGEST_PREFIX + " символов или число подсказок вне 1.."
+                    + MAX_SUGGESTIONS);
+        }
+        if (prefix.isBlank()) {
+            return Collections.emptyList();
+        }
+        return nameTrie.suggest(prefix, size);
+    }
+
+    @Override
+    @Transactional
     public CommentDto addComment(int userId, int itemId, CommentDto text) {
         List<Booking> userBookings = bookingDao.findAllByBooker(userId);
         Optional<Booking> booking = userBookings.stream()
@@ -138,7 +169,10 @@ public class ItemServiceImpl implements ItemService {
 
         if (booking.isPresent()) {
             Comment comment = CommentMapper.toComment(booking.get(), text);
-            return CommentMapper.toCommentDto(commentDao.save(comment), booking.get().getBooker().getName());
+            CommentDto result = CommentMapper.toCommentDto(commentDao.save(comment),
+                    booking.get().getBooker().getName());
+            summaryStore.refresh(Collections.singletonList(itemId));
+            return result;
         }
         throw new ValidationException("Вещь не была в аренде");
     }
@@ -161,18 +195,29 @@ public class ItemServiceImpl implements ItemService {
         return itemDao.findById(itemId).orElseThrow(() -> new NotFoundException("Вещь с таким id не найдена"));
     }
 
+    private ItemDetailDto loadItemDetail(Integer ownerId, int itemId, String etag) {
+        Item item = getItem(itemId);
+
+        ItemBookingSummary summary = null;
+        if (ownerId != null && item.getOwnerId() == ownerId) {
+            summary = summaryStore.get(Collections.singletonList(itemId)).get(itemId);
+        }
+        List<CommentDto> comments = getListCommentsDto(itemId);
+        return new ItemDetailDto(etag, ItemMapper.toItemDtoPers(item, summary, comments, comments.size()),
+                summary == null ? null : summary.getRefreshAt());
+    }
+
     private List<CommentDto> getListCommentsDto(int itemId) {
-        return commentDao.findCommentsByItemsId(Collections.singletonList(itemId)).stream()
-                .map(comment -> {
-                    String name = userService.findUserById(comment.getAuthorName()).getName();
-                    return CommentMapper.toCommentDto(comment, name);
-                })
+        return commentDao.findCommentDtosByItemsId(Collections.singletonList(itemId)).stream()
+                .map(ItemCommentDto::getComment)
                 .collect(Collectors.toList());
     }
 
-    private Map<Integer, String> getUserNamesById() {
-        List<UserDto> users = userService.getAllUsers();
-        return users.stream()
-                .collect(Collectors.toMap(UserDto::getId, UserDto::getName));
+    private List<ItemCommentDto> lastComments(List<Integer> itemIds) {
+        if (commentsLimit == 0) {
+            return Collections.emptyList();
+        }
+        List<Integer> ids = commentDao.findLastCommentIdsByItemIds(itemIds, commentsLimit);
+        return ids.isEmpty() ? Collections.emptyList() : commentDao.findCommentDtosByIds(ids);
     }
 }
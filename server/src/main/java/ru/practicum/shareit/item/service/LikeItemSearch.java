@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.items.search", havingValue = "like")
+public class LikeItemSearch implements ItemSearch {
+    private ItemDao itemDao;
+
+    public LikeItemSearch(ItemDao itemDao) {
+        this.itemDao = itemDao;
+    }
+
+    @Override
+    public List<Item> search(String text, Integer from, Integer size) {
+        String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return itemDao.searchAvailable(escaped, PageRequest.of(from > 0 ? from / size : 0, size));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Обход всей таблицы страницами по возрастанию id: так индексы в памяти загружаются при старте.
+ */
+public class KeysetLoader {
+    private static final int PAGE_SIZE = 1000;
+
+    private KeysetLoader() {
+    }
+
+    public static <T> int forEach(Pages<T> pages, ToIntFunction<T> idOf, Consumer<T> action) {
+        int count = 0;
+        int afterId = 0;
+        List<T> page;
+        do {
+            page = pages.after(afterId, PageRequest.of(0, PAGE_SIZE));
+            for (T row : page) {
+                action.accept(row);
+                afterId = idOf.applyAsInt(row);
+            }
+            count += page.size();
+        } while (page.size() == PAGE_SIZE);
+        return count;
+    }
+
+    @FunctionalInterface
+    public interface Pages<T> {
+        List<T> after(int id, Pageable pageable);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static ru.practicum.shareit.constants.Constatnts.NEXT_CURSOR;
+
+public class NextCursor {
+    private NextCursor() {
+    }
+
+    /**
+     * Полная страница получает заголовок с курсором на последнюю запись, неполная считается последней.
+     */
+    public static <T> ResponseEntity<List<T>> withNextCursor(List<T> page, int size, Function<T, String> cursorOf) {
+        if (page.size() < size) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR, cursorOf.apply(page.get(page.size() - 1)))
+                .body(page);
+    }
+}
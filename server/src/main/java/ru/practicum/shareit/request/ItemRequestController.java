@@ -2,7 +2,9 @@ package ru.practicum.shareit.request;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestRespDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -10,6 +12,7 @@ import ru.practicum.shareit.request.service.ItemRequestService;
 import java.util.List;
 
 import static ru.practicum.shareit.constants.Constatnts.USER_ID;
+import static ru.practicum.shareit.pagination.NextCursor.withNextCursor;
 
 @RestController
 @RequestMapping(path = "/requests")
@@ -40,11 +43,15 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestRespDto> getAllItemRequests(@RequestHeader(name = USER_ID) int userId,
-                                                       @RequestParam Integer from,
-                                                       @RequestParam Integer size) {
+    public ResponseEntity<List<ItemRequestRespDto>> getAllItemRequests(@RequestHeader(name = USER_ID) int userId,
+                                                                       @RequestParam Integer from,
+                                                                       @RequestParam Integer size,
+                                                                       @RequestParam(required = false) String after) {
         log.info("Получение всех запросов пользователем id={}", userId);
-        return itemRequestService.getAllItemRequests(from, size, userId);
+        List<ItemRequestRespDto> result = after == null
+                ? itemRequestService.getAllItemRequests(from, size, userId)
+                : itemRequestService.getAllItemRequestsAfter(after, size, userId);
+        return withNextCursor(result, size, last -> Cursor.encode(last.getCreated(), last.getId()));
     }
 
     @GetMapping("/{requestId}")
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.request.dao;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -11,4 +14,11 @@ public interface ItemRequestDao  extends JpaRepository<ItemRequest, Integer> {
     List<ItemRequest> findItemRequestsByRequestorIdOrderByCreatedDesc(int requestorId);
 
     List<ItemRequest> findAllByOrderByCreatedDesc();
+
+    List<ItemRequest> findByRequestorIdNotOrderByCreatedDescIdDesc(int requestorId, Pageable pageable);
+
+    // Отдельное условие created <= ?2 даёт диапазон по индексу (created, id, requestor_id)
+    @Query("select ir from ItemRequest as ir where ir.requestorId <> ?1 and ir.created <= ?2 and " +
+            "(ir.created < ?2 or ir.id < ?3) order by ir.created desc, ir.id desc")
+    List<ItemRequest> findOthersAfter(int requestorId, LocalDateTime created, int id, Pageable pageable);
 }
@@ -5,7 +5,9 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestRespDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class ItemRequestMapper {
@@ -31,4 +33,13 @@ public class ItemRequestMapper {
                                 i.getRequestId()))
                         .collect(Collectors.toList()));
     }
+
+    public static List<ItemRequestRespDto> toItemRequestRespDtos(List<ItemRequest> irs, List<Item> items) {
+        Map<Integer, List<Item>> itemsByRequestId = items.stream()
+                .filter(i -> i.getRequestId() != null)
+                .collect(Collectors.groupingBy(Item::getRequestId));
+        return irs.stream()
+                .map(ir -> toItemRequestRespDto(ir, itemsByRequestId.getOrDefault(ir.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
 }
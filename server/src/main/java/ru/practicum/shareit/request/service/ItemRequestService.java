@@ -14,5 +14,7 @@ public interface ItemRequestService {
 
     List<ItemRequestRespDto> getAllItemRequests(Integer from, Integer size, int userId);
 
+    List<ItemRequestRespDto> getAllItemRequestsAfter(String after, Integer size, int userId);
+
     ItemRequestRespDto getItemRequestById(int userId, int requestId);
 }
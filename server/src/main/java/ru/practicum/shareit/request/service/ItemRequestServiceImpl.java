@@ -5,11 +5,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dao.ItemRequestDao;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestRespDto;
@@ -50,32 +50,25 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestRespDto> getOwnItemRequests(int userId) {
         checkUser(userId);
-        List<ItemRequest> ownItemRequests = itemRequestDao.findItemRequestsByRequestorIdOrderByCreatedDesc(userId);
-        List<Integer> ids = ownItemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
-        List<Item> items = itemDao.findItemsByRequestIds(ids);
-        return ownItemRequests.stream()
-                .map(ir -> ItemRequestMapper.toItemRequestRespDto(ir, items))
-                .collect(Collectors.toList());
+        return toItemRequestRespDtos(itemRequestDao.findItemRequestsByRequestorIdOrderByCreatedDesc(userId));
     }
 
     @Override
     public List<ItemRequestRespDto> getItemRequests() {
-        List<ItemRequest> itemRequests = itemRequestDao.findAllByOrderByCreatedDesc();
-        List<Item> items = itemDao.findAll();
-        return itemRequests.stream()
-                .map(ir -> ItemRequestMapper.toItemRequestRespDto(ir, items))
-                .collect(Collectors.toList());
+        return toItemRequestRespDtos(itemRequestDao.findAllByOrderByCreatedDesc());
     }
 
     @Override
     public List<ItemRequestRespDto> getAllItemRequests(Integer from, Integer size, int userId) {
-        Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size, Sort.by("created").descending());
-        List<Item> items = itemDao.findAll();
+        Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
+        return toItemRequestRespDtos(itemRequestDao.findByRequestorIdNotOrderByCreatedDescIdDesc(userId, pagebale));
+    }
 
-        return itemRequestDao.findAll(pagebale).stream()
-                .filter(ir -> ir.getRequestorId() != userId)
-                .map(ir -> ItemRequestMapper.toItemRequestRespDto(ir, items))
-                .collect(Collectors.toList());
+    @Override
+    public List<ItemRequestRespDto> getAllItemRequestsAfter(String after, Integer size, int userId) {
+        Cursor cursor = Cursor.decode(after);
+        return toItemRequestRespDtos(itemRequestDao.findOthersAfter(userId, cursor.getTime(), cursor.getId(),
+                PageRequest.of(0, size)));
     }
 
     @Override
@@ -87,6 +80,14 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestMapper.toItemRequestRespDto(ir, items);
     }
 
+    private List<ItemRequestRespDto> toItemRequestRespDtos(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> ids = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        return ItemRequestMapper.toItemRequestRespDtos(itemRequests, itemDao.findItemsByRequestIds(ids));
+    }
+
     private void checkUser(int userId) {
         if (!userService.isExist(userId)) {
             log.info("Пользователь с несуществующим id={}", userId);
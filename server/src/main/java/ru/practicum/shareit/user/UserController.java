@@ -1,25 +1,36 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import static ru.practicum.shareit.pagination.NextCursor.withNextCursor;
+
 @RestController
 @RequestMapping(path = "/users")
 public class UserController {
     private final Logger log = LoggerFactory.getLogger(ItemController.class);
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     @RequestMapping(method = RequestMethod.POST)
@@ -29,8 +40,35 @@ public class UserController {
     }
 
     @RequestMapping(method = RequestMethod.GET)
-    public List<UserDto> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<StreamingResponseBody> getAllUsers() {
+        log.info("Получение всех пользователей");
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                userService.forEachUser(user -> {
+                    try {
+                        generator.writeObject(user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<List<UserDto>> getUsers(@RequestParam(defaultValue = "0") Integer from,
+                                                  @RequestParam Integer size,
+                                                  @RequestParam(required = false) Integer after) {
+        log.info("Получение пользователей from={}, size={}, after={}", from, size, after);
+        List<UserDto> result = after == null
+                ? userService.getUsers(from, size)
+                : userService.getUsersAfter(after, size);
+        return withNextCursor(result, size, last -> String.valueOf(last.getId()));
     }
 
     @PatchMapping("/{id}")
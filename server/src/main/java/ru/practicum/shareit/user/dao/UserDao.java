@@ -1,7 +1,29 @@
 package ru.practicum.shareit.user.dao;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 public interface UserDao extends JpaRepository<User, Integer> {
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.email, u.name) from User u order by u.id")
+    Stream<UserDto> streamAllOrderById();
+
+    List<User> findAllByOrderById(Pageable pageable);
+
+    List<User> findByIdGreaterThanOrderById(int id, Pageable pageable);
+
+    boolean existsByEmail(String email);
+
+    boolean existsByEmailAndIdNot(String email, int id);
 }
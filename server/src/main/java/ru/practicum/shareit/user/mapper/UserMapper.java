@@ -4,6 +4,9 @@ import org.springframework.util.StringUtils;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class UserMapper {
     public static User combineUserWithUserDto(User user, UserDto userDto) {
         return new User(
@@ -20,6 +23,12 @@ public class UserMapper {
         return user == null ? null : new UserDto(user.getId(), user.getEmail(), user.getName());
     }
 
+    public static List<UserDto> toUserDtos(List<User> users) {
+        return users.stream()
+                .map(UserMapper::toUserDto)
+                .collect(Collectors.toList());
+    }
+
     public static User toUser(UserDto userDto) {
         return userDto == null ? null : new User(userDto.getId(), userDto.getEmail(), userDto.getName());
     }
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.user.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.pagination.KeysetLoader;
+import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.model.User;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Component
+public class UserEmailFilter {
+    private final Logger log = LoggerFactory.getLogger(UserEmailFilter.class);
+
+    private static final int BITS = 1 << 23;
+    private static final int HASHES = 7;
+
+    private final AtomicLongArray bits = new AtomicLongArray(BITS / Long.SIZE);
+    private UserDao userDao;
+
+    public UserEmailFilter(UserDao userDao) {
+        this.userDao = userDao;
+    }
+
+    @PostConstruct
+    public void load() {
+        int count = KeysetLoader.forEach(userDao::findByIdGreaterThanOrderById, User::getId,
+                user -> put(user.getEmail()));
+        log.info("Загружены email пользователей в фильтр: {}", count);
+    }
+
+    public void put(String email) {
+        long hash = hash(email);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = index(hash, i);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String email) {
+        long hash = hash(email);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = index(hash, i);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % BITS;
+    }
+
+    private long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.dao.UserDao;
+
+import java.time.Duration;
+
+/**
+ * Кэш id существующих пользователей. Хранятся только положительные ответы, поэтому пользователь, удалённый
+ * через другой экземпляр сервера, считается существующим не дольше ttl.
+ */
+@Component
+public class UserIdCache {
+    private final Cache<Integer, Boolean> knownIds;
+    private UserDao userDao;
+
+    public UserIdCache(UserDao userDao,
+                       @Value("${shareit.users.id-cache.size:100000}") long maxSize,
+                       @Value("${shareit.users.id-cache.ttl-ms:60000}") long ttl) {
+        this.userDao = userDao;
+        this.knownIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .build();
+    }
+
+    public boolean exists(int id) {
+        if (knownIds.getIfPresent(id) != null) {
+            return true;
+        }
+        if (!userDao.existsById(id)) {
+            return false;
+        }
+        add(id);
+        return true;
+    }
+
+    public void add(int id) {
+        knownIds.put(id, Boolean.TRUE);
+    }
+
+    public void remove(int id) {
+        knownIds.invalidate(id);
+    }
+}
@@ -3,11 +3,16 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto addUser(UserDto userDto);
 
-    List<UserDto> getAllUsers();
+    void forEachUser(Consumer<UserDto> action);
+
+    List<UserDto> getUsers(Integer from, Integer size);
+
+    List<UserDto> getUsersAfter(int afterId, Integer size);
 
     UserDto updateUser(UserDto userDto, int id);
 
@@ -3,7 +3,13 @@ package ru.practicum.shareit.user.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -11,44 +17,75 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.constants.Constatnts.USERS_CACHE;
 
 @Service
 public class UserServiceImpl implements UserService {
     private final Logger log = LoggerFactory.getLogger(UserServiceImpl.class);
 
     private UserDao userDao;
+    private UserIdCache userIdCache;
+    private UserEmailFilter userEmailFilter;
 
     @Autowired
-    public UserServiceImpl(UserDao userDao) {
+    public UserServiceImpl(UserDao userDao, UserIdCache userIdCache, UserEmailFilter userEmailFilter) {
         this.userDao = userDao;
+        this.userIdCache = userIdCache;
+        this.userEmailFilter = userEmailFilter;
     }
 
     @Override
     public UserDto addUser(UserDto userDto) {
+        if (userEmailFilter.mightContain(userDto.getEmail()) && userDao.existsByEmail(userDto.getEmail())) {
+            throw new ConflictException("Пользователь с таким email уже существует");
+        }
         User user = UserMapper.toUserWithoutId(userDto);
         UserDto result = UserMapper.toUserDto(userDao.save(user));
+        userIdCache.add(result.getId());
+        userEmailFilter.put(result.getEmail());
         log.info("Добавлен пользователь id={}", result.getId());
         return result;
     }
 
     @Override
-    public List<UserDto> getAllUsers() {
-        return userDao.findAll().stream()
-                .map(UserMapper::toUserDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public void forEachUser(Consumer<UserDto> action) {
+        try (Stream<UserDto> users = userDao.streamAllOrderById()) {
+            users.forEach(action);
+        }
+    }
+
+    @Override
+    public List<UserDto> getUsers(Integer from, Integer size) {
+        return UserMapper.toUserDtos(userDao.findAllByOrderById(PageRequest.of(from > 0 ? from / size : 0, size)));
     }
 
     @Override
+    public List<UserDto> getUsersAfter(int afterId, Integer size) {
+        return UserMapper.toUserDtos(userDao.findByIdGreaterThanOrderById(afterId, PageRequest.of(0, size)));
+    }
+
+    @Override
+    @CachePut(cacheNames = USERS_CACHE, key = "#id")
     public UserDto updateUser(UserDto userDto, int id) {
-        User userBefore = UserMapper.toUser(findUserById(id));
+        // Вызов findUserById изнутри класса идёт мимо кэша, поэтому исходная запись читается из базы напрямую
+        User userBefore = userDao.findById(id).orElseThrow(() -> new NotFoundException("Такой пользователь не найден"));
         User userAfter = UserMapper.combineUserWithUserDto(userBefore, userDto);
+        if (!userAfter.getEmail().equals(userBefore.getEmail()) && userEmailFilter.mightContain(userAfter.getEmail())
+                && userDao.existsByEmailAndIdNot(userAfter.getEmail(), id)) {
+            throw new ConflictException("Пользователь с таким email уже существует");
+        }
         UserDto result = UserMapper.toUserDto(userDao.save(userAfter));
+        userEmailFilter.put(result.getEmail());
         log.info("Обновлен пользователь id={}", id);
         return result;
     }
 
     @Override
+    @Cacheable(cacheNames = USERS_CACHE, key = "#id")
     public UserDto findUserById(int id) {
         try {
             return UserMapper.toUserDto(userDao.findById(id).get());
@@ -58,13 +95,15 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#id")
     public void deleteUserById(int id) {
         userDao.deleteById(id);
+        userIdCache.remove(id);
         log.info("Удален пользователь id={}", id);
     }
 
     @Override
     public boolean isExist(int id) {
-        return findUserById(id) != null;
+        return userIdCache.exists(id);
     }
 }
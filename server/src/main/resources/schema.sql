@@ -55,3 +55,39 @@ CREATE TABLE IF NOT EXISTS comments
     FOREIGN KEY (user_id) REFERENCES users (id)
 );
 
+
+CREATE TABLE IF NOT EXISTS item_booking_summary
+(
+    item_id           INT                         NOT NULL,
+    last_booking_id   INT,
+    last_booker_id    INT,
+    last_start        TIMESTAMP WITHOUT TIME ZONE,
+    last_end          TIMESTAMP WITHOUT TIME ZONE,
+    last_status       VARCHAR(20),
+    next_booking_id   INT,
+    next_booker_id    INT,
+    next_start        TIMESTAMP WITHOUT TIME ZONE,
+    next_end          TIMESTAMP WITHOUT TIME ZONE,
+    next_status       VARCHAR(20),
+    bookings_count    BIGINT                      NOT NULL,
+    comments_count    BIGINT                      NOT NULL,
+    refresh_at        TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    FOREIGN KEY (item_id) REFERENCES items (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created_id ON requests (requestor_id, created, id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created, id, requestor_id);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_time);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_time);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_refresh_at ON item_booking_summary (refresh_at);
@@ -0,0 +1,80 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.item.dao.ItemBookingSummaryDao;
+import ru.practicum.shareit.request.dao.ItemRequestDao;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+/**
+ * Проверяет по плану H2, что запросы DAO идут по индексам из schema.sql. Индексы по колонкам внешних ключей
+ * (owner_id, request_id, booker_id, requestor_id, comments.item_id) здесь не проверяются: H2 сам создаёт индексы
+ * под внешние ключи и выбирает их, а в PostgreSQL таких индексов нет и нужны именованные.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.SchemaIndexTest$SqlCapture")
+class SchemaIndexTest {
+    @Autowired
+    BookingDao bookingDao;
+    @Autowired
+    ItemBookingSummaryDao summaryDao;
+    @Autowired
+    ItemRequestDao itemRequestDao;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    LocalDateTime created = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @BeforeEach
+    void clear() {
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    void lastBookingsOfItemsShouldUseItemStartIndex() {
+        bookingDao.findLastBookingIdsByItemIds(List.of(1, 2));
+
+        assertThat(explainLast(1, 2).toLowerCase(), containsString("idx_bookings_item_start"));
+    }
+
+    @Test
+    void otherUsersRequestsPageShouldUseCreatedIndex() {
+        itemRequestDao.findOthersAfter(1, created, 1, PageRequest.of(0, 10));
+
+        assertThat(explainLast(1, created, created, 1, 10).toLowerCase(), containsString("idx_requests_created_id"));
+    }
+
+    @Test
+    void staleSummariesShouldUseRefreshAtIndex() {
+        summaryDao.findItemIdsToRefresh(created);
+
+        assertThat(explainLast(created).toLowerCase(), containsString("idx_item_booking_summary_refresh_at"));
+    }
+
+    private String explainLast(Object... parameters) {
+        String sql = SqlCapture.STATEMENTS.get(SqlCapture.STATEMENTS.size() - 1);
+        return jdbcTemplate.queryForObject("explain " + sql, String.class, parameters);
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import ru.practicum.shareit.booking.dto.BookingDtoResp;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.constants.Status;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
@@ -25,6 +26,7 @@ import java.util.Collections;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -167,4 +169,25 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].booker.id", is(1)))
                 .andExpect(jsonPath("$[0].status", is(Status.APPROVED.toString())));
     }
+
+    @Test
+    void shouldGetAllForOwnerAfterCursorWithNextCursor() throws Exception {
+        UserDto booker = new UserDto(1, "op@pa.ru", "booker");
+        Item item = new Item(1, 2, "item", "description", true, null);
+        BookingDtoResp bookingDtoResp = new BookingDtoResp(3, start, end, item, booker, Status.APPROVED);
+        String after = Cursor.encode(end, 5);
+        when(service.getAllForOwnerAfter(after, 1, 2, "ALL")).thenReturn(Collections.singletonList(bookingDtoResp));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 2)
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("state", "ALL")
+                        .param("after", after)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", Cursor.encode(start, 3)))
+                .andExpect(jsonPath("$[0].id", is(3)));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.constants.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    @Mock
+    BookingDao bookingDao;
+
+    LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+    Item item = new Item(1, 2, "item", "description", true, null);
+    User booker = new User(1, "op@pa.ru", "booker");
+
+    @Test
+    void shouldWarmUpFromActiveBookings() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingDao);
+        Mockito.when(bookingDao.findActiveByStatusIn(anyList())).thenReturn(List.of(
+                new Booking(1, start, start.plusDays(1), item, booker, Status.APPROVED)));
+
+        index.warmUp();
+
+        assertFalse(index.isFree(1, start.plusHours(1), start.plusHours(2)));
+        assertTrue(index.isFree(2, start.plusHours(1), start.plusHours(2)));
+    }
+
+    @Test
+    void shouldFreeSlotWhenTransactionRolledBack() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingDao);
+        Booking booking = new Booking(1, start, start.plusHours(1), item, booker, Status.WAITING);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.saveIfFree(1, booking.getStart(), booking.getEnd(), () -> booking);
+            assertFalse(index.isFree(1, booking.getStart(), booking.getEnd()));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(index.isFree(1, booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    void shouldFreeRemovedSlotOnlyAfterCommit() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingDao);
+        Booking booking = new Booking(1, start, start.plusHours(1), item, booker, Status.WAITING);
+        index.put(booking);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.remove(booking);
+            assertFalse(index.isFree(1, booking.getStart(), booking.getEnd()));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(index.isFree(1, booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    void shouldKeepRemovedSlotWhenTransactionRolledBack() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingDao);
+        Booking booking = new Booking(1, start, start.plusHours(1), item, booker, Status.WAITING);
+        index.put(booking);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.remove(booking);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(index.isFree(1, booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    void shouldTreatAdjacentBookingsAsFree() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingDao);
+        index.put(new Booking(1, start, start.plusHours(1), item, booker, Status.WAITING));
+
+        assertTrue(index.isFree(1, start.plusHours(1), start.plusHours(2)));
+        assertTrue(index.isFree(1, start.minusHours(1), start));
+        assertFalse(index.isFree(1, start.minusMinutes(1), start.plusMinutes(1)));
+    }
+
+    @Test
+    void shouldFindOverlapWithLongBookingStartedEarlier() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingDao);
+        index.put(new Booking(1, start, start.plusDays(10), item, booker, Status.APPROVED));
+        index.put(new Booking(2, start.plusDays(1), start.plusDays(2), item, booker, Status.WAITING));
+
+        assertFalse(index.isFree(1, start.plusDays(5), start.plusDays(6)));
+        assertTrue(index.isFree(1, start.plusDays(10), start.plusDays(11)));
+    }
+
+    @Test
+    void shouldNotSaveIfSlotTaken() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingDao);
+        index.put(new Booking(1, start, start.plusHours(2), item, booker, Status.APPROVED));
+
+        Optional<Booking> result = index.saveIfFree(1, start.plusHours(1), start.plusHours(3),
+                () -> fail("Не должно сохраняться"));
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void shouldFreeSlotAfterRemove() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingDao);
+        Booking booking = new Booking(1, start, start.plusHours(2), item, booker, Status.APPROVED);
+        index.put(booking);
+        index.remove(booking);
+
+        Optional<Booking> result = index.saveIfFree(1, start, start.plusHours(2),
+                () -> new Booking(2, start, start.plusHours(2), item, booker, Status.WAITING));
+
+        assertEquals(2, result.get().getId());
+        assertFalse(index.isFree(1, start, start.plusHours(1)));
+    }
+
+    @Test
+    void shouldKeepOtherBookingsOfMergedSlotAfterRemove() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingDao);
+        Booking longBooking = new Booking(1, start, start.plusDays(10), item, booker, Status.APPROVED);
+        index.put(longBooking);
+        index.put(new Booking(2, start.plusDays(1), start.plusDays(2), item, booker, Status.WAITING));
+
+        index.remove(longBooking);
+
+        assertTrue(index.isFree(1, start.plusDays(5), start.plusDays(6)));
+        assertFalse(index.isFree(1, start.plusDays(1), start.plusDays(3)));
+    }
+
+    @Test
+    void shouldEvictEndedBookings() {
+        BookingIntervalIndex index = new BookingIntervalIndex(bookingDao);
+        LocalDateTime now = LocalDateTime.now();
+        index.put(new Booking(1, now.minusDays(10), now.minusDays(1), item, booker, Status.APPROVED));
+        index.put(new Booking(2, now.plusDays(1), now.plusDays(2), item, booker, Status.APPROVED));
+
+        index.evictExpired();
+
+        assertTrue(index.isFree(1, now.minusDays(5), now.minusDays(4)));
+        assertFalse(index.isFree(1, now.plusDays(1), now.plusDays(3)));
+    }
+}
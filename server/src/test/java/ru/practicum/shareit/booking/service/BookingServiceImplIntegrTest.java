@@ -11,6 +11,7 @@ import ru.practicum.shareit.booking.dto.BookingDtoResp;
 import ru.practicum.shareit.constants.Status;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.model.User;
@@ -126,6 +127,28 @@ class BookingServiceImplIntegrTest {
         assertThat(result.get(0).getStatus(), equalTo(Status.WAITING));
     }
 
+    @Test
+    void getAllForOwnerAfterCursor() {
+        User booker = prepareUser("op@pa.ru", "booker");
+        User owner = prepareUser("po@ap.ru", "owner");
+        Item item = new Item(0, owner.getId(), "item", "description", true, null);
+        Item resultItem = itemDao.save(item);
+        for (int i = 0; i < 3; i++) {
+            service.add(new BookingDto(0, start.plusDays(i), end.plusDays(i), resultItem.getId(), null, null),
+                    booker.getId());
+        }
+
+        List<BookingDtoResp> first = service.getAllForOwner(0, 2, owner.getId(), "ALL");
+        BookingDtoResp last = first.get(first.size() - 1);
+        List<BookingDtoResp> second = service.getAllForOwnerAfter(Cursor.encode(last.getStart(), last.getId()),
+                2, owner.getId(), "ALL");
+
+        assertThat(first.size(), equalTo(2));
+        assertThat(first.get(0).getStart(), equalTo(start.plusDays(2)));
+        assertThat(second.size(), equalTo(1));
+        assertThat(second.get(0).getStart(), equalTo(start));
+    }
+
     private User prepareUser(String email, String name) {
         List<User> users = userDao.findAll();
 
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -16,8 +17,11 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemBookingSummaryStore;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserIdCache;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -37,14 +41,24 @@ class BookingServiceImplUnitTest {
     BookingDao bookingDao;
     @Mock
     UserDao userDao;
+    @Mock
+    ItemBookingSummaryStore summaryStore;
+    UserIdCache userIdCache;
+    BookingIntervalIndex bookingIndex;
 
     DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
     LocalDateTime start = LocalDateTime.parse(LocalDateTime.now().plusMinutes(10).format(dtf));
     LocalDateTime end = LocalDateTime.parse(LocalDateTime.now().plusMinutes(50).format(dtf));
 
+    @BeforeEach
+    void setUp() {
+        userIdCache = new UserIdCache(userDao, 100, 60000);
+        bookingIndex = new BookingIntervalIndex(bookingDao);
+    }
+
     @Test
     void shouldAddBooking() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         Item item = new Item(1, 2, "item", "description", true, null);
         BookingDto bookingDto = new BookingDto(0, start, end, 1, null, null);
@@ -65,7 +79,7 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldThrowNotFoundExceptionIfItemNotFoundInAddBooking() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         BookingDto bookingDto = new BookingDto(0, start, end, 1, null, null);
 
         Mockito.when(itemDao.findById(1)).thenReturn(Optional.empty());
@@ -75,7 +89,7 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldThrowValidationExceptionIfItemNotAvailableInAddBooking() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         BookingDto bookingDto = new BookingDto(0, start, end, 1, null, null);
         Item item = new Item(1, 2, "item", "description", false, null);
 
@@ -86,7 +100,7 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldThrowNotFoundExceptionIfOwnerEqualBookerInAddBooking() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         BookingDto bookingDto = new BookingDto(0, start, end, 1, null, null);
         Item item = new Item(1, 1, "item", "description", true, null);
 
@@ -97,7 +111,7 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldThrowNotFoundExceptionIfUserNotFoundInAddBooking() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         BookingDto bookingDto = new BookingDto(0, start, end, 1, null, null);
         Item item = new Item(1, 2, "item", "description", true, null);
 
@@ -108,9 +122,46 @@ class BookingServiceImplUnitTest {
     }
 
 
+    @Test
+    void shouldThrowValidationExceptionIfItemAlreadyBookedInAddBooking() {
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
+        User booker = new User(1, "op@pa.ru", "booker");
+        Item item = new Item(1, 2, "item", "description", true, null);
+        bookingIndex.put(new Booking(5, start.minusMinutes(5), start.plusMinutes(5), item, booker, Status.APPROVED));
+        BookingDto bookingDto = new BookingDto(0, start, end, 1, null, null);
+
+        Mockito.when(itemDao.findById(1)).thenReturn(Optional.of(item));
+        Mockito.when(userDao.findById(1)).thenReturn(Optional.of(booker));
+
+        assertThrows(ValidationException.class, () -> service.add(bookingDto, 1));
+        Mockito.verify(bookingDao, Mockito.never()).save(any());
+    }
+
+    @Test
+    void shouldAddBookingAfterRejectingOverlappedBooking() {
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
+        User booker = new User(1, "op@pa.ru", "booker");
+        Item item = new Item(1, 2, "item", "description", true, null);
+        Booking waiting = new Booking(5, start, end, item, booker, Status.WAITING);
+        Booking rejected = new Booking(5, start, end, item, booker, Status.REJECTED);
+        Booking booking = new Booking(6, start, end, item, booker, Status.WAITING);
+        bookingIndex.put(waiting);
+        BookingDto bookingDto = new BookingDto(0, start, end, 1, null, null);
+
+        Mockito.when(bookingDao.findById(5)).thenReturn(Optional.of(waiting));
+        Mockito.when(userDao.findById(1)).thenReturn(Optional.of(booker));
+        Mockito.when(itemDao.findById(1)).thenReturn(Optional.of(item));
+        Mockito.when(bookingDao.save(any())).thenReturn(rejected, booking);
+
+        service.approve(2, 5, false);
+        BookingDtoResp result = service.add(bookingDto, 1);
+
+        assertEquals(6, result.getId());
+    }
+
     @Test
     void shouldApproveBooking() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
@@ -131,7 +182,7 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldRejectedBookingInApproveBooking() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
@@ -152,7 +203,7 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldThrowNotFoundExceptionIfBookingNotFoundInApproveBooking() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
 
         Mockito.when(bookingDao.findById(1)).thenReturn(Optional.empty());
 
@@ -161,7 +212,7 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldThrowNotFoundExceptionIfOwnerNotOwnerInApproveBooking() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
@@ -173,7 +224,7 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldThrowValidationExceptionIfItemAlreadyApprovedInApproveBooking() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.APPROVED);
@@ -186,7 +237,7 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldGetByBookingId() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
@@ -205,7 +256,7 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldThrowNotFoundExceptionIfBookingIdNotFoundInGetByBookingId() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
 
         Mockito.when(bookingDao.findBookingByIdAndBookerId(2, 1)).thenReturn(Optional.empty());
 
@@ -214,7 +265,7 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldThrowNotFoundExceptionIfUserIdNotFoundInGetByBookingId() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
 
         Mockito.when(bookingDao.findBookingByIdAndBookerId(1, 3)).thenReturn(Optional.empty());
 
@@ -226,13 +277,13 @@ class BookingServiceImplUnitTest {
     void shouldGetAllBookingsForUserWithPagebale() {
         int from = 0;
         int size = 2;
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(userDao.findById(1)).thenReturn(Optional.of(booker));
+        Mockito.when(userDao.existsById(1)).thenReturn(true);
         Mockito.when(bookingDao.findAllByBooker(1, pagebale)).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResp> result = service.getAllForUser(from, size, 1, "ALL");
@@ -250,13 +301,13 @@ class BookingServiceImplUnitTest {
     void shouldGetFutureBookingsForUserWithPagebale() {
         int from = 0;
         int size = 2;
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(userDao.findById(1)).thenReturn(Optional.of(booker));
+        Mockito.when(userDao.existsById(1)).thenReturn(true);
         Mockito.when(bookingDao.findFutureByBooker(1, pagebale)).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResp> result = service.getAllForUser(from, size, 1, "FUTURE");
@@ -274,13 +325,13 @@ class BookingServiceImplUnitTest {
     void shouldGetPastBookingsForUserWithPagebale() {
         int from = 0;
         int size = 2;
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start.minusHours(2), end.minusHours(2), item, booker, Status.WAITING);
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(userDao.findById(1)).thenReturn(Optional.of(booker));
+        Mockito.when(userDao.existsById(1)).thenReturn(true);
         Mockito.when(bookingDao.findPastByBooker(1, pagebale)).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResp> result = service.getAllForUser(from, size, 1, "PAST");
@@ -298,13 +349,13 @@ class BookingServiceImplUnitTest {
     void shouldGetCurrentBookingsForUserWithPagebale() {
         int from = 0;
         int size = 2;
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start.minusHours(2), end.plusHours(2), item, booker, Status.WAITING);
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(userDao.findById(1)).thenReturn(Optional.of(booker));
+        Mockito.when(userDao.existsById(1)).thenReturn(true);
         Mockito.when(bookingDao.findCurrentByBooker(1, pagebale)).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResp> result = service.getAllForUser(from, size, 1, "CURRENT");
@@ -322,13 +373,13 @@ class BookingServiceImplUnitTest {
     void shouldGetWaitingBookingsForUserWithPagebale() {
         int from = 0;
         int size = 2;
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(userDao.findById(1)).thenReturn(Optional.of(booker));
+        Mockito.when(userDao.existsById(1)).thenReturn(true);
         Mockito.when(bookingDao.findWaitingOrRejectedByBooker(1, Status.WAITING, pagebale)).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResp> result = service.getAllForUser(from, size, 1, "WAITING");
@@ -346,13 +397,13 @@ class BookingServiceImplUnitTest {
     void shouldGetRejevtedBookingsForUserWithPagebale() {
         int from = 0;
         int size = 2;
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.REJECTED);
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(userDao.findById(1)).thenReturn(Optional.of(booker));
+        Mockito.when(userDao.existsById(1)).thenReturn(true);
         Mockito.when(bookingDao.findWaitingOrRejectedByBooker(1, Status.REJECTED, pagebale)).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResp> result = service.getAllForUser(from, size, 1, "REJECTED");
@@ -368,9 +419,9 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldThrowValidationExceptionStatusNotFoundInGetBookingsForUser() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
-        Mockito.when(userDao.findById(1)).thenReturn(Optional.of(booker));
+        Mockito.when(userDao.existsById(1)).thenReturn(true);
 
         assertThrows(ValidationException.class, () -> service.getAllForUser(null, null, 1, "NOT FOUND"));
     }
@@ -379,14 +430,14 @@ class BookingServiceImplUnitTest {
     void shouldGetAllBookingsForOwnerWithPagebale() {
         int from = 0;
         int size = 2;
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         User owner = new User(2, "pa@op.ru", "owner");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(userDao.findById(2)).thenReturn(Optional.of(owner));
+        Mockito.when(userDao.existsById(2)).thenReturn(true);
         Mockito.when(bookingDao.findAllByOwner(2, pagebale)).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResp> result = service.getAllForOwner(from, size, 2, "ALL");
@@ -404,14 +455,14 @@ class BookingServiceImplUnitTest {
     void shouldGetFutureBookingsForOwnerWithPagebale() {
         int from = 0;
         int size = 2;
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         User owner = new User(2, "pa@op.ru", "owner");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(userDao.findById(2)).thenReturn(Optional.of(owner));
+        Mockito.when(userDao.existsById(2)).thenReturn(true);
         Mockito.when(bookingDao.findFutureByOwner(2, pagebale)).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResp> result = service.getAllForOwner(from, size, 2, "FUTURE");
@@ -429,14 +480,14 @@ class BookingServiceImplUnitTest {
     void shouldGetPastBookingsForOwnerWithPagebale() {
         int from = 0;
         int size = 2;
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         User owner = new User(2, "pa@op.ru", "owner");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start.minusHours(2), end.minusHours(2), item, booker, Status.WAITING);
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(userDao.findById(2)).thenReturn(Optional.of(owner));
+        Mockito.when(userDao.existsById(2)).thenReturn(true);
         Mockito.when(bookingDao.findPastByOwner(2, pagebale)).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResp> result = service.getAllForOwner(from, size, 2, "PAST");
@@ -454,14 +505,14 @@ class BookingServiceImplUnitTest {
     void shouldGetCurrentBookingsForOwnerWithPagebale() {
         int from = 0;
         int size = 2;
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         User owner = new User(2, "pa@op.ru", "owner");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start.minusHours(2), end.plusHours(2), item, booker, Status.WAITING);
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(userDao.findById(2)).thenReturn(Optional.of(owner));
+        Mockito.when(userDao.existsById(2)).thenReturn(true);
         Mockito.when(bookingDao.findCurrentByOwner(2, pagebale)).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResp> result = service.getAllForOwner(from, size, 2, "CURRENT");
@@ -479,14 +530,14 @@ class BookingServiceImplUnitTest {
     void shouldGetWaitingBookingsForOwnerWithPagebale() {
         int from = 0;
         int size = 2;
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         User owner = new User(2, "pa@op.ru", "owner");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(userDao.findById(2)).thenReturn(Optional.of(owner));
+        Mockito.when(userDao.existsById(2)).thenReturn(true);
         Mockito.when(bookingDao.findWaitingOrRejectedByOwner(2, Status.WAITING, pagebale)).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResp> result = service.getAllForOwner(from, size, 2, "WAITING");
@@ -504,14 +555,14 @@ class BookingServiceImplUnitTest {
     void shouldGetRejevtedBookingsForOwnerWithPagebale() {
         int from = 0;
         int size = 2;
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User booker = new User(1, "op@pa.ru", "booker");
         User owner = new User(2, "pa@op.ru", "owner");
         Item item = new Item(1, 2, "item", "description", true, null);
         Booking booking = new Booking(1, start, end, item, booker, Status.REJECTED);
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
-        Mockito.when(userDao.findById(2)).thenReturn(Optional.of(owner));
+        Mockito.when(userDao.existsById(2)).thenReturn(true);
         Mockito.when(bookingDao.findWaitingOrRejectedByOwner(2, Status.REJECTED, pagebale)).thenReturn(Collections.singletonList(booking));
 
         List<BookingDtoResp> result = service.getAllForOwner(from, size, 2, "REJECTED");
@@ -527,10 +578,56 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldThrowValidationExceptionStatusNotFoundInGetBookingsForOwner() {
-        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao);
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
         User owner = new User(2, "pa@op.ru", "owner");
-        Mockito.when(userDao.findById(1)).thenReturn(Optional.of(owner));
+        Mockito.when(userDao.existsById(1)).thenReturn(true);
 
         assertThrows(ValidationException.class, () -> service.getAllForUser(null, null, 1, "NOT FOUND"));
     }
+
+    @Test
+    void shouldGetAllBookingsForUserAfterCursor() {
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
+        User booker = new User(1, "op@pa.ru", "booker");
+        Item item = new Item(1, 2, "item", "description", true, null);
+        Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
+        String after = Cursor.encode(start.plusDays(1), 7);
+
+        Mockito.when(userDao.existsById(1)).thenReturn(true);
+        Mockito.when(bookingDao.findAllByBookerAfter(1, start.plusDays(1), 7, PageRequest.of(0, 2)))
+                .thenReturn(Collections.singletonList(booking));
+
+        List<BookingDtoResp> result = service.getAllForUserAfter(after, 2, 1, "ALL");
+
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getId());
+    }
+
+    @Test
+    void shouldGetWaitingBookingsForOwnerAfterCursor() {
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
+        User booker = new User(1, "op@pa.ru", "booker");
+        User owner = new User(2, "pa@op.ru", "owner");
+        Item item = new Item(1, 2, "item", "description", true, null);
+        Booking booking = new Booking(1, start, end, item, booker, Status.WAITING);
+        String after = Cursor.encode(start.plusDays(1), 7);
+
+        Mockito.when(userDao.existsById(2)).thenReturn(true);
+        Mockito.when(bookingDao.findWaitingOrRejectedByOwnerAfter(2, Status.WAITING, start.plusDays(1), 7,
+                PageRequest.of(0, 2))).thenReturn(Collections.singletonList(booking));
+
+        List<BookingDtoResp> result = service.getAllForOwnerAfter(after, 2, 2, "WAITING");
+
+        assertEquals(1, result.size());
+        assertEquals(Status.WAITING, result.get(0).getStatus());
+    }
+
+    @Test
+    void shouldThrowValidationExceptionIfCursorIsBroken() {
+        BookingService service = new BookingServiceImpl(bookingDao, itemDao, userDao, userIdCache, bookingIndex, summaryStore);
+        User owner = new User(2, "pa@op.ru", "owner");
+        Mockito.when(userDao.existsById(2)).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> service.getAllForOwnerAfter("not-a-cursor", 2, 2, "ALL"));
+    }
 }
\ No newline at end of file
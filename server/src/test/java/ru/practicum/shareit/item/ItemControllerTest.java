@@ -1,11 +1,13 @@
 package ru.practicum.shareit.item;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
@@ -14,20 +16,25 @@ import org.springframework.web.context.WebApplicationContext;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDetailDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoPers;
+import ru.practicum.shareit.item.service.ItemDetailCache;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -169,8 +176,8 @@ class ItemControllerTest {
         ItemDto itemReq = new ItemDto(null, null, "item1", "item1", null, null);
 
         ItemDtoPers itemResp = new ItemDtoPers(1, 1, "item1", "item1", true, null, null,
-                Collections.singletonList(new CommentDto(1, "text", "user", LocalDateTime.now())), null);
-        when(service.findItemByIdAndUserId(1, 1)).thenReturn(itemResp);
+                Collections.singletonList(new CommentDto(1, "text", "user", LocalDateTime.now())), null, 1);
+        when(service.findItemDetail(1, 1)).thenReturn(new ItemDetailDto("\"v1\"", itemResp, null));
 
         mvc.perform(get("/items/{itemId}", 1)
                         .header("X-Sharer-User-Id", 1)
@@ -179,6 +186,7 @@ class ItemControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
                 .andExpect(jsonPath("$.id", is(itemResp.getId()), Integer.class))
                 .andExpect(jsonPath("$.name", is(itemResp.getName())))
                 .andExpect(jsonPath("$.description", is(itemResp.getDescription())))
@@ -187,10 +195,46 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.comments[0].id", is(itemResp.getComments().get(0).getId())));
     }
 
+    @Test
+    void shouldReturnNotModifiedForMatchingEtagInGetItemById() throws Exception {
+        ItemDtoPers itemResp = new ItemDtoPers(1, 1, "item1", "item1", true, null, null,
+                Collections.emptyList(), null, 0);
+        when(service.findItemDetail(1, 1)).thenReturn(new ItemDetailDto("\"v1\"", itemResp, null));
+
+        mvc.perform(get("/items/{itemId}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"v1\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void shouldReturnOkForOldEtagAfterBookingsRefreshMoment() throws Exception {
+        ItemDetailCache cache = new ItemDetailCache(new SimpleMeterRegistry(), 100, 60000);
+        ItemDtoPers itemResp = new ItemDtoPers(1, 1, "item1", "item1", true, null, null,
+                Collections.emptyList(), null, 0);
+        LocalDateTime passed = LocalDateTime.now().minusSeconds(1);
+        when(service.findItemDetail(1, 1))
+                .thenAnswer(invocation -> cache.get(1, 1, etag -> new ItemDetailDto(etag, itemResp, passed)));
+
+        String etag = mvc.perform(get("/items/{itemId}", 1)
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/items/{itemId}", 1)
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
     @Test
     void shouldThrowNotFoundExceptionInGetItemById() throws Exception {
         ItemDto itemReq = new ItemDto(null, null, "item1", "item1", true, null);
-        when(service.findItemByIdAndUserId(2, 1)).thenThrow(new NotFoundException("Такой вещи нет"));
+        when(service.findItemDetail(2, 1)).thenThrow(new NotFoundException("Такой вещи нет"));
 
         mvc.perform(get("/items/{itemId}", 1)
                         .header("X-Sharer-User-Id", 2)
@@ -207,7 +251,7 @@ class ItemControllerTest {
         ItemDto itemReq = new ItemDto(null, null, "item1", "item1", null, null);
 
         ItemDtoPers itemResp = new ItemDtoPers(1, 1, "item1", "item1", true, null, null,
-                Collections.singletonList(new CommentDto(1, "text", "user", LocalDateTime.now())), null);
+                Collections.singletonList(new CommentDto(1, "text", "user", LocalDateTime.now())), null, 1);
         when(service.findItemsByUserId(0, 2, 1)).thenReturn(Collections.singletonList(itemResp));
 
         mvc.perform(get("/items", 1)
@@ -227,6 +271,19 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].comments[0].id", is(itemResp.getComments().get(0).getId())));
     }
 
+    @Test
+    void suggestItemNames() throws Exception {
+        when(service.suggestItemNames("Др", 10)).thenReturn(List.of("Дрель", "Дрель ударная"));
+
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "Др")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", is("Дрель")))
+                .andExpect(jsonPath("$[1]", is("Дрель ударная")));
+    }
+
     @Test
     void searchItemsByText() throws Exception {
         ItemDto itemResp = new ItemDto(1, 1, "item1", "item1", true, null);
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.dao;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class CommentDaoTest {
+    @Autowired
+    CommentDao commentDao;
+
+    @Autowired
+    ItemDao itemDao;
+
+    @Autowired
+    UserDao userDao;
+
+    @Test
+    void shouldReturnLastCommentsOfEachItem() {
+        User user = userDao.save(new User("op@pa.ru", "user"));
+        Item item1 = itemDao.save(new Item(user.getId(), "item1", "item1", true, null));
+        Item item2 = itemDao.save(new Item(user.getId(), "item2", "item2", true, null));
+        LocalDateTime created = LocalDateTime.of(2023, 1, 1, 10, 0);
+        List<Comment> comments = commentDao.saveAll(List.of(
+                new Comment(0, "first", item1.getId(), user.getId(), created),
+                new Comment(0, "second", item1.getId(), user.getId(), created.plusDays(1)),
+                new Comment(0, "third", item1.getId(), user.getId(), created.plusDays(2)),
+                new Comment(0, "only", item2.getId(), user.getId(), created)));
+
+        List<Integer> ids = commentDao.findLastCommentIdsByItemIds(List.of(item1.getId(), item2.getId()), 2);
+        List<ItemCommentDto> result = commentDao.findCommentDtosByIds(ids);
+
+        assertEquals(List.of(comments.get(3).getId(), comments.get(1).getId(), comments.get(2).getId()),
+                result.stream().map(comment -> comment.getComment().getId()).collect(Collectors.toList()));
+        assertEquals("user", result.get(0).getComment().getAuthorName());
+    }
+}
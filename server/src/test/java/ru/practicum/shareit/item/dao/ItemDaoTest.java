@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.dao;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class ItemDaoTest {
+    @Autowired
+    ItemDao itemDao;
+
+    @Autowired
+    UserDao userDao;
+
+    @Test
+    void shouldReturnFullPagesOfAvailableItemsInSearch() {
+        User user = userDao.save(new User("op@pa.ru", "user"));
+        List<Item> items = itemDao.saveAll(List.of(
+                new Item(user.getId(), "Дрель", "Простая дрель", false, null),
+                new Item(user.getId(), "Отвертка", "Аккумуляторная ДРЕЛЬ", true, null),
+                new Item(user.getId(), "Дрель_2", "Ударная", true, null),
+                new Item(user.getId(), "Молоток", "Тяжелый", true, null),
+                new Item(user.getId(), "дрель", "Мощная", true, null)));
+
+        List<Item> firstPage = itemDao.searchAvailable("дРелЬ", PageRequest.of(0, 2));
+        List<Item> secondPage = itemDao.searchAvailable("дРелЬ", PageRequest.of(1, 2));
+
+        assertEquals(List.of(items.get(1).getId(), items.get(2).getId()),
+                firstPage.stream().map(Item::getId).collect(Collectors.toList()));
+        assertEquals(List.of(items.get(4).getId()),
+                secondPage.stream().map(Item::getId).collect(Collectors.toList()));
+        assertEquals(List.of(items.get(2).getId()), itemDao.searchAvailable("ь\\_", PageRequest.of(0, 2)).stream()
+                .map(Item::getId).collect(Collectors.toList()));
+    }
+}
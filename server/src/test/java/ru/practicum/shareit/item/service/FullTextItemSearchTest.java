@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dao.ItemDao;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextItemSearchTest {
+    @Mock
+    ItemDao itemDao;
+
+    @Test
+    void shouldSearchByPrefixesOfAllWords() {
+        ItemSearch itemSearch = new FullTextItemSearch(itemDao);
+        Mockito.when(itemDao.searchAvailableFullText("аккум:* & дрел:*", PageRequest.of(1, 2)))
+                .thenReturn(Collections.emptyList());
+
+        assertEquals(Collections.emptyList(), itemSearch.search("  Аккум, ДРЕЛ'", 2, 2));
+        assertEquals(Collections.emptyList(), itemSearch.search("!?", 0, 2));
+        Mockito.verify(itemDao, Mockito.times(1)).searchAvailableFullText(Mockito.anyString(), Mockito.any());
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.constants.Status;
+import ru.practicum.shareit.item.dao.ItemBookingSummaryDao;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserDao;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(
+        properties = "db.name=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext
+class ItemBookingSummaryLockTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemDao itemDao;
+    @Autowired
+    private UserDao userDao;
+    @Autowired
+    private BookingDao bookingDao;
+    @Autowired
+    private ItemBookingSummaryDao summaryDao;
+    @Autowired
+    private ItemBookingSummaryStore summaryStore;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentBookingsShouldBothCountInSummary() throws InterruptedException {
+        User owner = userDao.save(new User("owner@pa.ru", "owner"));
+        User booker = userDao.save(new User("booker@pa.ru", "booker"));
+        ItemDto itemDto = itemService.addItem(new ItemDto(0, owner.getId(), "item", "description", true, null),
+                owner.getId());
+        Item item = itemDao.findById(itemDto.getId()).get();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstRefreshed = new CountDownLatch(1);
+        CountDownLatch firstMayCommit = new CountDownLatch(1);
+
+        Thread first = new Thread(() -> transaction.executeWithoutResult(status -> {
+            bookingDao.save(new Booking(0, start, start.plusHours(1), item, booker, Status.WAITING));
+            summaryStore.refresh(List.of(item.getId()));
+            firstRefreshed.countDown();
+            await(firstMayCommit);
+        }));
+        Thread second = new Thread(() -> {
+            await(firstRefreshed);
+            transaction.executeWithoutResult(status -> {
+                bookingDao.save(new Booking(0, start.plusDays(1), start.plusDays(2), item, booker, Status.WAITING));
+                summaryStore.refresh(List.of(item.getId()));
+            });
+        });
+        first.start();
+        second.start();
+        firstRefreshed.await();
+        Thread.sleep(300);
+        firstMayCommit.countDown();
+        first.join();
+        second.join();
+
+        assertThat(summaryDao.findById(item.getId()).get().getBookingsCount(), equalTo(2L));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dao.BookingDao;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.constants.Status;
+import ru.practicum.shareit.item.dao.CommentDao;
+import ru.practicum.shareit.item.dao.ItemBookingSummaryDao;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.dto.ItemBookingStatsDto;
+import ru.practicum.shareit.item.dto.ItemCountDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummaryStoreTest {
+    @Mock
+    ItemBookingSummaryDao summaryDao;
+    @Mock
+    ItemDao itemDao;
+    @Mock
+    BookingDao bookingDao;
+    @Mock
+    CommentDao commentDao;
+    @Mock
+    ItemDetailCache detailCache;
+
+    LocalDateTime now = LocalDateTime.now();
+    Item item = new Item(1, 1, "item", "description", true, null);
+    User booker = new User(2, "op@pa.ru", "booker");
+
+    @Test
+    void shouldReturnFreshSummaryWithoutRefresh() {
+        ItemBookingSummaryStore store = new ItemBookingSummaryStore(summaryDao, itemDao, bookingDao, commentDao,
+                detailCache);
+        Booking next = new Booking(3, now.plusDays(1), now.plusDays(2), item, booker, Status.WAITING);
+        ItemBookingSummary summary = ItemMapper.toItemBookingSummary(1, null, next, 1, 0, next.getStart());
+        Mockito.when(summaryDao.findAllById(List.of(1))).thenReturn(List.of(summary));
+
+        Map<Integer, ItemBookingSummary> result = store.get(List.of(1));
+
+        assertEquals(3, result.get(1).getNextBookingId());
+        Mockito.verifyNoInteractions(bookingDao, commentDao);
+    }
+
+    @Test
+    void shouldRefreshSummaryWhenNextBookingStarted() {
+        ItemBookingSummaryStore store = new ItemBookingSummaryStore(summaryDao, itemDao, bookingDao, commentDao,
+                detailCache);
+        Booking started = new Booking(3, now.minusMinutes(1), now.plusDays(1), item, booker, Status.APPROVED);
+        ItemBookingSummary stale = ItemMapper.toItemBookingSummary(1, null, started, 1, 0, started.getStart());
+        Mockito.when(summaryDao.findAllById(List.of(1))).thenReturn(List.of(stale));
+        Mockito.when(bookingDao.findLastBookingIdsByItemIds(List.of(1))).thenReturn(List.of(3));
+        Mockito.when(bookingDao.findNextBookingIdsByItemIds(List.of(1))).thenReturn(Collections.emptyList());
+        Mockito.when(bookingDao.findAllWithItemAndBookerByIdIn(List.of(3))).thenReturn(List.of(started));
+        Mockito.when(bookingDao.findStatsByItemIds(List.of(1)))
+                .thenReturn(List.of(new ItemBookingStatsDto(1, 1, null)));
+        Mockito.when(commentDao.countByItemIds(List.of(1))).thenReturn(List.of(new ItemCountDto(1, 2)));
+
+        ItemBookingSummary result = store.get(List.of(1)).get(1);
+
+        assertEquals(3, result.getLastBookingId());
+        assertEquals(2, result.getLastBookerId());
+        assertNull(result.getNextBookingId());
+        assertEquals(1, result.getBookingsCount());
+        assertEquals(2, result.getCommentsCount());
+        assertNull(result.getRefreshAt());
+        Mockito.verify(summaryDao, Mockito.never()).saveAll(anyList());
+        Mockito.verifyNoInteractions(detailCache);
+    }
+
+    @Test
+    void shouldSaveRefreshedSummaryAndInvalidateDetail() {
+        ItemBookingSummaryStore store = new ItemBookingSummaryStore(summaryDao, itemDao, bookingDao, commentDao,
+                detailCache);
+        Mockito.when(bookingDao.findLastBookingIdsByItemIds(List.of(1))).thenReturn(Collections.emptyList());
+        Mockito.when(bookingDao.findNextBookingIdsByItemIds(List.of(1))).thenReturn(Collections.emptyList());
+        Mockito.when(bookingDao.findStatsByItemIds(List.of(1))).thenReturn(Collections.emptyList());
+        Mockito.when(commentDao.countByItemIds(List.of(1))).thenReturn(List.of(new ItemCountDto(1, 2)));
+        Mockito.when(summaryDao.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ItemBookingSummary> result = store.refresh(List.of(1));
+
+        assertEquals(2, result.get(0).getCommentsCount());
+        InOrder order = Mockito.inOrder(summaryDao, bookingDao);
+        order.verify(summaryDao).lockAllById(List.of(1));
+        order.verify(bookingDao).findLastBookingIdsByItemIds(List.of(1));
+        Mockito.verify(detailCache).invalidate(1);
+    }
+
+    @Test
+    void shouldSkipRefreshForEmptyItemList() {
+        ItemBookingSummaryStore store = new ItemBookingSummaryStore(summaryDao, itemDao, bookingDao, commentDao,
+                detailCache);
+
+        assertEquals(Collections.emptyList(), store.refresh(Collections.emptyList()));
+        Mockito.verifyNoInteractions(summaryDao, bookingDao, commentDao, detailCache);
+    }
+}
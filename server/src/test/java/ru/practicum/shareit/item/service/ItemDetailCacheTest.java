@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDetailDto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ItemDetailCacheTest {
+    @Test
+    void shouldKeepDetailUntilInvalidated() {
+        ItemDetailCache cache = new ItemDetailCache(new SimpleMeterRegistry(), 100, 60000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, 1, etag -> load(etag, loads));
+        cache.get(1, 1, etag -> load(etag, loads));
+        cache.invalidate(1);
+        cache.get(1, 1, etag -> load(etag, loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldReloadDetailAfterTtl() {
+        ItemDetailCache cache = new ItemDetailCache(new SimpleMeterRegistry(), 100, 0);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, 1, etag -> load(etag, loads));
+        cache.get(1, 1, etag -> load(etag, loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldChangeEtagWhenBookingsRefreshMomentPasses() {
+        ItemDetailCache cache = new ItemDetailCache(new SimpleMeterRegistry(), 100, 60000);
+        LocalDateTime passed = LocalDateTime.now().minusSeconds(1);
+
+        ItemDetailDto first = cache.get(1, 1, etag -> new ItemDetailDto(etag, null, passed));
+        ItemDetailDto second = cache.get(1, 1, etag -> new ItemDetailDto(etag, null, null));
+        ItemDetailDto third = cache.get(1, 1, etag -> new ItemDetailDto(etag, null, null));
+
+        assertNotEquals(first.getEtag(), second.getEtag());
+        assertEquals(second.getEtag(), third.getEtag());
+    }
+
+    private ItemDetailDto load(String etag, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new ItemDetailDto(etag, null, null);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class ItemNameTrieTest {
+    @Mock
+    ItemDao itemDao;
+
+    @Test
+    void shouldSuggestAvailableNamesByPrefix() {
+        ItemNameTrie trie = new ItemNameTrie(itemDao, 100);
+        Mockito.when(itemDao.findByIdGreaterThanOrderById(0, PageRequest.of(0, 1000))).thenReturn(List.of(
+                new Item(1, 1, "Дрель ударная", "description", true, null),
+                new Item(2, 1, "Дрель", "description", true, null),
+                new Item(3, 1, "Дрель", "description", true, null),
+                new Item(4, 1, "Дрезина", "description", false, null),
+                new Item(5, 1, "Отвертка", "description", true, null)));
+
+        trie.load();
+
+        assertEquals(List.of("Дрель", "Дрель ударная"), trie.suggest("дР", 10));
+        assertEquals(List.of("Дрель"), trie.suggest("дрель", 1));
+        assertEquals(Collections.emptyList(), trie.suggest("дрез", 10));
+    }
+
+    @Test
+    void shouldMoveRenamedItemAndDropUnavailableOne() {
+        ItemNameTrie trie = new ItemNameTrie(itemDao, 100);
+        trie.index(new Item(1, 1, "Дрель", "description", true, null));
+
+        trie.index(new Item(1, 1, "Отвертка", "description", true, null));
+        assertEquals(Collections.emptyList(), trie.suggest("д", 10));
+        assertEquals(List.of("Отвертка"), trie.suggest("о", 10));
+
+        trie.index(new Item(1, 1, "Отвертка", "description", false, null));
+        assertEquals(Collections.emptyList(), trie.suggest("", 10));
+    }
+
+    @Test
+    void shouldRankNamesByNumberOfItems() {
+        ItemNameTrie trie = new ItemNameTrie(itemDao, 100);
+        trie.index(new Item(1, 1, "Дрель", "description", true, null));
+        trie.index(new Item(2, 1, "Дрель ударная", "description", true, null));
+        trie.index(new Item(3, 1, "Дрель ударная", "description", true, null));
+        trie.index(new Item(4, 1, "Дрезина", "description", true, null));
+
+        assertEquals(List.of("Дрель ударная", "Дрезина", "Дрель"), trie.suggest("др", 10));
+        assertEquals(List.of("Дрель ударная"), trie.suggest("др", 1));
+    }
+
+    @Test
+    void shouldRefillBoundedTopAfterRemoval() {
+        ItemNameTrie trie = new ItemNameTrie(itemDao, 2);
+        trie.index(new Item(1, 1, "Пила", "description", true, null));
+        trie.index(new Item(2, 1, "Пила", "description", true, null));
+        trie.index(new Item(3, 1, "Пилка", "description", true, null));
+        trie.index(new Item(4, 1, "Пинцет", "description", true, null));
+        assertEquals(List.of("Пила", "Пилка"), trie.suggest("пи", 10));
+
+        trie.index(new Item(3, 1, "Пилка", "description", false, null));
+
+        assertEquals(List.of("Пила", "Пинцет"), trie.suggest("пи", 10));
+        assertEquals(Collections.emptyList(), trie.suggest("пилк", 10));
+    }
+}
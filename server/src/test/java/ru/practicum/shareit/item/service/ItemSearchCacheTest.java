@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+    @Test
+    void shouldKeepResultsUntilInvalidated() {
+        ItemSearchCache cache = new ItemSearchCache(new SimpleMeterRegistry(), 100);
+        AtomicInteger searches = new AtomicInteger();
+
+        cache.get("дрель", 0, 10, () -> search(searches));
+        cache.get("ДРЕЛЬ", 0, 10, () -> search(searches));
+        cache.invalidate();
+        cache.get("дрель", 0, 10, () -> search(searches));
+
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void shouldDropResultsCachedBeforeCommit() {
+        ItemSearchCache cache = new ItemSearchCache(new SimpleMeterRegistry(), 100);
+        AtomicInteger searches = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate();
+            cache.get("дрель", 0, 10, () -> search(searches));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        cache.get("дрель", 0, 10, () -> search(searches));
+
+        assertEquals(2, searches.get());
+    }
+
+    private List<ItemDto> search(AtomicInteger searches) {
+        searches.incrementAndGet();
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dao.ItemDao;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @Mock
+    ItemDao itemDao;
+
+    @Test
+    void shouldLoadItemsAndOrderByRelevance() {
+        ItemSearchIndex index = new ItemSearchIndex(itemDao);
+        Mockito.when(itemDao.findByIdGreaterThanOrderById(0, PageRequest.of(0, 1000))).thenReturn(List.of(
+                new Item(1, 1, "Отвертка", "Аккумуляторная дрель", true, null),
+                new Item(2, 1, "Дрель", "Простая дрель", true, null),
+                new Item(3, 1, "Дрель ударная", "Не работает", false, null),
+                new Item(4, 1, "Мощная дрель", "Для бетона", true, null)));
+
+        index.load();
+
+        assertEquals(List.of(2, 4, 1), index.findIds("дРелЬ"));
+        assertEquals(List.of(1), index.findIds("ккумулятор"));
+        assertEquals(List.of(1), index.findIds("от"));
+        assertEquals(Collections.emptyList(), index.findIds("молоток"));
+    }
+
+    @Test
+    void shouldFindShortQueriesWithoutFullScan() {
+        ItemSearchIndex index = new ItemSearchIndex(itemDao);
+        index.index(new Item(1, 1, "Дрель", "Простая", true, null));
+        index.index(new Item(2, 1, "Молоток", "Тяжелый", true, null));
+        index.index(new Item(3, 1, "Пила", "Ручная", true, null));
+
+        assertEquals(List.of(1, 3), index.findIds("р"));
+        assertEquals(List.of(2), index.findIds("ло"));
+        assertEquals(Collections.emptyList(), index.findIds("ъ"));
+    }
+
+    @Test
+    void shouldReindexUpdatedItem() {
+        ItemSearchIndex index = new ItemSearchIndex(itemDao);
+        index.index(new Item(1, 1, "Дрель", "Простая дрель", false, null));
+        assertEquals(Collections.emptyList(), index.findIds("дрель"));
+
+        index.index(new Item(1, 1, "Отвертка", "Простая отвертка", true, null));
+
+        assertEquals(Collections.emptyList(), index.findIds("дрель"));
+        assertEquals(List.of(1), index.findIds("отвертка"));
+    }
+
+    @Test
+    void shouldLoadRequestedPageOfAvailableItems() {
+        ItemSearchIndex index = new ItemSearchIndex(itemDao);
+        Item first = new Item(1, 1, "Дрель", "Простая дрель", true, null);
+        Item second = new Item(2, 1, "Дрель ударная", "Мощная дрель", true, null);
+        Item third = new Item(3, 1, "Дрель", "Сломанная дрель", true, null);
+        List.of(first, second, third).forEach(index::index);
+        Mockito.when(itemDao.findAllById(List.of(3))).thenReturn(List.of(third));
+
+        assertEquals(List.of(third), index.search("дрель", 2, 2));
+        assertEquals(Collections.emptyList(), index.search("дрель", 4, 2));
+    }
+}
@@ -4,15 +4,19 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dao.BookingDao;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.constants.Status;
+import ru.practicum.shareit.item.dao.ItemBookingSummaryDao;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDetailDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoPers;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.model.User;
 
@@ -40,6 +44,12 @@ class ItemServiceImplIntegrTest {
     @Autowired
     private BookingDao bookingDao;
 
+    @Autowired
+    private ItemBookingSummaryDao summaryDao;
+
+    @Autowired
+    private ItemBookingSummaryStore summaryStore;
+
     @Test
     void addItem() {
         User user = prepareUser("op@pa.ru", "user");
@@ -111,6 +121,22 @@ class ItemServiceImplIntegrTest {
         assertThat(result.size(), equalTo(2));
     }
 
+    @Test
+    void findItemsByUserIdShouldReturnFullPageOfOwnItems() {
+        User user = prepareUser("op@pa.ru", "user");
+        User other = prepareUser("po@ap.ru", "other");
+        for (int i = 0; i < 3; i++) {
+            service.addItem(new ItemDto(0, other.getId(), "other" + i, "other description", true, null), other.getId());
+            service.addItem(new ItemDto(0, user.getId(), "item" + i, "item description", true, null), user.getId());
+        }
+
+        List<ItemDtoPers> result = service.findItemsByUserId(2, 2, user.getId());
+
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0).getName(), equalTo("item2"));
+        assertThat(service.findItemsByUserId(0, 2, user.getId()).get(0).getName(), equalTo("item0"));
+    }
+
     @Test
     void searchItemsByText() {
         User user = prepareUser("op@pa.ru", "user");
@@ -124,6 +150,45 @@ class ItemServiceImplIntegrTest {
         assertThat(result.get(0).getName(), equalTo("item1"));
     }
 
+    @Test
+    void findItemDetailKeepsEtagUntilItemChanges() {
+        User user = prepareUser("op@pa.ru", "user");
+        ItemDto item = service.addItem(new ItemDto(0, user.getId(), "item", "description", true, null),
+                user.getId());
+
+        ItemDetailDto first = service.findItemDetail(user.getId(), item.getId());
+        ItemDetailDto second = service.findItemDetail(user.getId(), item.getId());
+        service.updateItem(new ItemDto(0, user.getId(), "new item", null, null, null), user.getId(), item.getId());
+        ItemDetailDto third = service.findItemDetail(user.getId(), item.getId());
+
+        assertThat(second.getEtag(), equalTo(first.getEtag()));
+        assertThat(second.getItem(), equalTo(first.getItem()));
+        assertThat(third.getEtag().equals(first.getEtag()), equalTo(false));
+        assertThat(third.getItem().getName(), equalTo("new item"));
+    }
+
+    @Test
+    void addItemRollbackRemovesItemFromSearchAndSuggestions() {
+        User user = prepareUser("op@pa.ru", "user");
+        service.addItem(new ItemDto(0, user.getId(), "Рубанок", "Ручной рубанок", true, null), user.getId());
+
+        TestTransaction.flagForRollback();
+        TestTransaction.end();
+
+        assertThat(service.searchItemsByText(0, 10, "рубанок"), equalTo(Collections.emptyList()));
+        assertThat(service.suggestItemNames("руб", 10), equalTo(Collections.emptyList()));
+    }
+
+    @Test
+    void suggestItemNames() {
+        User user = prepareUser("op@pa.ru", "user");
+        service.addItem(new ItemDto(0, user.getId(), "Дрель", "Простая дрель", true, null), user.getId());
+        ItemDto hidden = service.addItem(new ItemDto(0, user.getId(), "Дрезина", "Ручная", true, null), user.getId());
+        service.updateItem(new ItemDto(0, user.getId(), null, null, false, null), user.getId(), hidden.getId());
+
+        assertThat(service.suggestItemNames("др", 10), equalTo(List.of("Дрель")));
+    }
+
     @Test
     void addComment() {
         User user = prepareUser("op@pa.ru", "user");
@@ -140,6 +205,99 @@ class ItemServiceImplIntegrTest {
         assertThat(result.getText(), equalTo("Comment"));
     }
 
+    @Test
+    void findItemsByUserIdWithCommentAuthors() {
+        User user = prepareUser("op@pa.ru", "user");
+        User booker = prepareUser("po@ap.ru", "user booker");
+        Item item = ItemMapper.toItem(service.addItem(
+                new ItemDto(0, user.getId(), "item1", "item description1", true, null), user.getId()));
+        bookingDao.save(new Booking(0, LocalDateTime.of(2023, 2, 3, 3, 3),
+                LocalDateTime.of(2023, 2, 4, 3, 3), item, booker, Status.APPROVED));
+        service.addComment(booker.getId(), item.getId(), new CommentDto(0, "Comment", null, null));
+
+        List<ItemDtoPers> result = service.findItemsByUserId(0, 10, user.getId());
+
+        assertThat(result.get(0).getComments().size(), equalTo(1));
+        assertThat(result.get(0).getComments().get(0).getAuthorName(), equalTo("user booker"));
+    }
+
+    @Test
+    void findItemsByUserIdWithNearestBookingsPerItem() {
+        User user = prepareUser("op@pa.ru", "user");
+        User booker = prepareUser("po@ap.ru", "user booker");
+        Item item1 = ItemMapper.toItem(service.addItem(
+                new ItemDto(0, user.getId(), "item1", "item description1", true, null), user.getId()));
+        Item item2 = ItemMapper.toItem(service.addItem(
+                new ItemDto(0, user.getId(), "item2", "item description2", true, null), user.getId()));
+        LocalDateTime now = LocalDateTime.now();
+        bookingDao.save(new Booking(0, now.minusDays(5), now.minusDays(4), item1, booker, Status.APPROVED));
+        Booking last = bookingDao.save(new Booking(0, now.minusDays(3), now.minusDays(2), item1, booker,
+                Status.APPROVED));
+        bookingDao.save(new Booking(0, now.plusDays(1), now.plusDays(2), item1, booker, Status.REJECTED));
+        Booking next = bookingDao.save(new Booking(0, now.plusDays(3), now.plusDays(4), item1, booker,
+                Status.WAITING));
+        bookingDao.save(new Booking(0, now.plusDays(5), now.plusDays(6), item1, booker, Status.APPROVED));
+        summaryStore.refresh(List.of(item1.getId(), item2.getId()));
+
+        List<ItemDtoPers> result = service.findItemsByUserId(0, 10, user.getId());
+        ItemDtoPers detail = service.findItemByIdAndUserId(user.getId(), item1.getId());
+
+        assertThat(result.get(0).getLastBooking().getId(), equalTo(last.getId()));
+        assertThat(result.get(0).getNextBooking().getId(), equalTo(next.getId()));
+        assertThat(result.get(1).getId(), equalTo(item2.getId()));
+        assertThat(result.get(1).getLastBooking(), equalTo(null));
+        assertThat(result.get(1).getNextBooking(), equalTo(null));
+        assertThat(detail.getLastBooking().getId(), equalTo(last.getId()));
+        assertThat(detail.getNextBooking().getId(), equalTo(next.getId()));
+    }
+
+    @Test
+    void findItemByIdAndUserIdRefreshesSummaryWhenNextBookingStarted() {
+        User user = prepareUser("op@pa.ru", "user");
+        User booker = prepareUser("po@ap.ru", "user booker");
+        Item item = ItemMapper.toItem(service.addItem(
+                new ItemDto(0, user.getId(), "item1", "item description1", true, null), user.getId()));
+        LocalDateTime now = LocalDateTime.now();
+        Booking booking = bookingDao.save(new Booking(0, now.plusDays(1), now.plusDays(2), item, booker,
+                Status.APPROVED));
+        summaryStore.refresh(List.of(item.getId()));
+
+        ItemDtoPers before = service.findItemByIdAndUserId(user.getId(), item.getId());
+        booking.setStart(now.minusDays(1));
+        bookingDao.save(booking);
+        ItemBookingSummary summary = summaryDao.findById(item.getId()).orElseThrow();
+        summary.setRefreshAt(now.minusDays(1));
+        summaryDao.save(summary);
+        ItemDtoPers after = service.findItemByIdAndUserId(user.getId(), item.getId());
+
+        assertThat(before.getLastBooking(), equalTo(null));
+        assertThat(before.getNextBooking().getId(), equalTo(booking.getId()));
+        assertThat(after.getLastBooking().getId(), equalTo(booking.getId()));
+        assertThat(after.getNextBooking(), equalTo(null));
+        assertThat(summaryDao.findById(item.getId()).orElseThrow().getBookingsCount(), equalTo(1L));
+    }
+
+    @Test
+    void createMissingSummariesOnStartup() {
+        User user = prepareUser("op@pa.ru", "user");
+        User booker = prepareUser("po@ap.ru", "user booker");
+        Item item = ItemMapper.toItem(service.addItem(
+                new ItemDto(0, user.getId(), "item1", "item description1", true, null), user.getId()));
+        LocalDateTime now = LocalDateTime.now();
+        Booking last = bookingDao.save(new Booking(0, now.minusDays(2), now.minusDays(1), item, booker,
+                Status.APPROVED));
+        service.addComment(booker.getId(), item.getId(), new CommentDto(0, "Comment", null, null));
+        summaryDao.deleteAll();
+
+        summaryStore.createMissing();
+
+        ItemBookingSummary summary = summaryDao.findById(item.getId()).orElseThrow();
+        assertThat(summary.getLastBookingId(), equalTo(last.getId()));
+        assertThat(summary.getNextBookingId(), equalTo(null));
+        assertThat(summary.getCommentsCount(), equalTo(1L));
+        assertThat(summary.getRefreshAt(), equalTo(null));
+    }
+
     private User prepareUser(String email, String name) {
         List<User> users = userDao.findAll();
 
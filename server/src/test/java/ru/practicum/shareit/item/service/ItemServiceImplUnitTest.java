@@ -1,12 +1,11 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dao.BookingDao;
@@ -17,11 +16,13 @@ import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.CommentDao;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.dto.ItemCountDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoPers;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -29,11 +30,11 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
 
 @ExtendWith(MockitoExtension.class)
 class ItemServiceImplUnitTest {
@@ -44,11 +45,21 @@ class ItemServiceImplUnitTest {
     @Mock
     CommentDao commentDao;
     @Mock
+    ItemBookingSummaryStore summaryStore;
+    @Mock
+    ItemSearch itemSearch;
+    @Mock
+    ItemNameTrie nameTrie;
+    @Mock
     UserService userService;
 
+    ItemSearchCache searchCache = new ItemSearchCache(new SimpleMeterRegistry(), 100);
+    ItemDetailCache detailCache = new ItemDetailCache(new SimpleMeterRegistry(), 100, 60000);
+
     @Test
     void shouldAddItem() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         Item itemReq = new Item(0, 1, "Item", "Item description", true, null);
         ItemDto itemDtoReq = new ItemDto(0, 1, "Item", "Item description", true, null);
         Item itemResp = new Item(1, 1, "Item", "Item description", true, null);
@@ -69,7 +80,8 @@ class ItemServiceImplUnitTest {
 
     @Test
     void shouldThrowNotFoundExceptionWhenUserIdIsNotExistInAddItem() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         ItemDto itemDtoReq = new ItemDto(0, 1, "Item", "Item description", true, null);
         Mockito.when(userService.isExist(1)).thenReturn(false);
 
@@ -78,7 +90,8 @@ class ItemServiceImplUnitTest {
 
     @Test
     void shouldUpdateItem() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         Item itemAfter = new Item(1, 1, "Item2", "Item description2", true, null);
         ItemDto itemDtoReq = new ItemDto(1, 1, "Item2", "Item description2", true, null);
         Item itemBefore = new Item(1, 1, "Item", "Item description", true, null);
@@ -100,7 +113,8 @@ class ItemServiceImplUnitTest {
 
     @Test
     void shouldThrowNotFoundExceptionWhenUserIdIsNotExistInUpdateItem() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         ItemDto itemDtoReq = new ItemDto(1, 1, "Item2", "Item description2", true, null);
         Mockito.when(userService.isExist(1)).thenReturn(false);
 
@@ -109,7 +123,8 @@ class ItemServiceImplUnitTest {
 
     @Test
     void shouldThrowNotFoundExceptionWhenItemIsNotExistInUpdateItem() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         ItemDto itemDtoReq = new ItemDto(1, 1, "Item2", "Item description2", true, null);
         Mockito.when(userService.isExist(1)).thenReturn(true);
         Mockito.when(itemDao.findById(1)).thenReturn(Optional.empty());
@@ -119,7 +134,8 @@ class ItemServiceImplUnitTest {
 
     @Test
     void shouldThrowNotFoundExceptionWhenItemIsNotOwnerInUpdateItem() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         ItemDto itemDtoReq = new ItemDto(1, 1, "Item2", "Item description2", true, null);
         Item itemBefore = new Item(1, 2, "Item", "Item description", true, null);
         Mockito.when(userService.isExist(1)).thenReturn(true);
@@ -131,7 +147,8 @@ class ItemServiceImplUnitTest {
 
     @Test
     void shouldFindItemById() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         Item item = new Item(1, 2, "Item", "Item description", true, null);
         Mockito.when(itemDao.findById(1)).thenReturn(Optional.of(item));
 
@@ -149,7 +166,8 @@ class ItemServiceImplUnitTest {
 
     @Test
     void shouldFindItemByIdAndUserIdForOwner() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         Item getItem = new Item(1, 1, "Item 1", "Item description 1", true, null);
         User booker = new User(3, "op@pa.ru", "booker");
         List<Booking> lastBookings = new ArrayList<>();
@@ -161,10 +179,9 @@ class ItemServiceImplUnitTest {
         Booking nextBooking = new Booking(3, LocalDateTime.of(2023, 2, 1, 10, 15),
                 LocalDateTime.of(2024, 2, 5, 10, 15), getItem, booker, Status.WAITING);
         Mockito.when(itemDao.findById(1)).thenReturn(Optional.of(getItem));
-        Mockito.when(bookingDao.findBookingWithLastNearestDateByItemId(Collections.singletonList(1)))
-                .thenReturn(lastBookings);
-        Mockito.when(bookingDao.findBookingWithNextNearestDateByItemId(Collections.singletonList(1)))
-                .thenReturn(Collections.singletonList(nextBooking));
+        Mockito.when(summaryStore.get(Collections.singletonList(1)))
+                .thenReturn(Map.of(1, ItemMapper.toItemBookingSummary(1, lastBookings.get(0), nextBooking,
+                        3, 0, nextBooking.getStart())));
 
         ItemDtoPers result = itemService.findItemByIdAndUserId(1, 1);
 
@@ -180,13 +197,13 @@ class ItemServiceImplUnitTest {
 
     @Test
     void shouldFindItemByIdAndUserId() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         Item getItem = new Item(1, 1, "Item 1", "Item description 1", true, null);
 
-        Mockito.when(commentDao.findCommentsByItemsId(Collections.singletonList(any())))
-                .thenReturn(Collections.singletonList(new Comment(1, "comment", 1, 1,
+        Mockito.when(commentDao.findCommentDtosByItemsId(Collections.singletonList(1)))
+                .thenReturn(Collections.singletonList(new ItemCommentDto(1, 1, "comment", "user1",
                         LocalDateTime.of(2023, 1, 1, 10, 15))));
-        Mockito.when(userService.findUserById(anyInt())).thenReturn(new UserDto(1, "op@pa.ru", "user1"));
         Mockito.when(itemDao.findById(1)).thenReturn(Optional.of(getItem));
         ItemDtoPers result = itemService.findItemByIdAndUserId(2, 1);
 
@@ -199,11 +216,14 @@ class ItemServiceImplUnitTest {
         assertEquals(null, result.getLastBooking());
         assertEquals(null, result.getNextBooking());
         assertEquals(1, result.getComments().size());
+        assertEquals("user1", result.getComments().get(0).getAuthorName());
+        Mockito.verifyNoInteractions(userService);
     }
 
     @Test
     void shouldThrowNotFoundExceptionWhenItemIsNotExistInFindItemByIdAndUserId() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         Mockito.when(itemDao.findById(1)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.findItemByIdAndUserId(1, 1));
@@ -213,10 +233,10 @@ class ItemServiceImplUnitTest {
     void shouldFindItemsByUserIdWithPagination() {
         int from = 0;
         int size = 2;
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         Item item = new Item(1, 1, "item1", "item1", true, null);
         User booker = new User(3, "op@pa.ru", "booker");
-        UserDto userComment = new UserDto(4, "po@ap.ru", "commentator");
         List<Booking> lastBookings = new ArrayList<>();
         lastBookings.add(new Booking(1, LocalDateTime.of(2023, 1, 1, 10, 15),
                 LocalDateTime.of(2023, 1, 5, 10, 15), item, booker, Status.APPROVED));
@@ -227,21 +247,22 @@ class ItemServiceImplUnitTest {
                 LocalDateTime.of(2024, 2, 5, 10, 15), item, booker, Status.WAITING));
         nextBookings.add(new Booking(4, LocalDateTime.of(2023, 2, 1, 11, 15),
                 LocalDateTime.of(2024, 2, 5, 10, 15), item, booker, Status.WAITING));
-        Comment comment = new Comment(1, "comment", 1, 4,
+        ItemCommentDto comment = new ItemCommentDto(1, 1, "comment", "commentator",
                 LocalDateTime.of(2023, 1, 5, 10, 15));
 
 
         Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
-        Page<Item> pages = new PageImpl<>(Collections.singletonList(item), pagebale, Collections.singletonList(item).size());
-
-        Mockito.when(itemDao.findAll(pagebale)).thenReturn(pages);
-        Mockito.when(bookingDao.findBookingWithLastNearestDateByItemId(Collections.singletonList(1)))
-                .thenReturn(lastBookings);
-        Mockito.when(bookingDao.findBookingWithNextNearestDateByItemId(Collections.singletonList(1)))
-                .thenReturn(nextBookings);
-        Mockito.when(commentDao.findCommentsByItemsId(Collections.singletonList(1)))
+
+        Mockito.when(itemDao.findByOwnerIdOrderById(1, pagebale)).thenReturn(Collections.singletonList(item));
+        Mockito.when(summaryStore.get(Collections.singletonList(1)))
+                .thenReturn(Map.of(1, ItemMapper.toItemBookingSummary(1, lastBookings.get(0), nextBookings.get(0),
+                        4, 1, nextBookings.get(0).getStart())));
+        Mockito.when(commentDao.findLastCommentIdsByItemIds(Collections.singletonList(1), 10))
+                .thenReturn(Collections.singletonList(1));
+        Mockito.when(commentDao.findCommentDtosByIds(Collections.singletonList(1)))
                 .thenReturn(Collections.singletonList(comment));
-        Mockito.when(userService.getAllUsers()).thenReturn(Collections.singletonList(userComment));
+        Mockito.when(commentDao.countByItemIds(Collections.singletonList(1)))
+                .thenReturn(Collections.singletonList(new ItemCountDto(1, 1)));
 
         List<ItemDtoPers> result = itemService.findItemsByUserId(0, 2, 1);
 
@@ -256,20 +277,62 @@ class ItemServiceImplUnitTest {
         assertEquals(1, result.get(0).getLastBooking().getId());
         assertEquals(3, result.get(0).getNextBooking().getId());
         assertEquals(1, result.get(0).getComments().get(0).getId());
+        assertEquals("commentator", result.get(0).getComments().get(0).getAuthorName());
+    }
+
+    @Test
+    void shouldAttachOnlyOwnLimitedCommentsInFindItemsByUserId() {
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 2);
+        Item item1 = new Item(1, 1, "item1", "item1", true, null);
+        Item item2 = new Item(2, 1, "item2", "item2", true, null);
+        List<ItemCommentDto> comments = new ArrayList<>();
+        for (int i = 2; i <= 3; i++) {
+            comments.add(new ItemCommentDto(1, i, "comment" + i, "author", LocalDateTime.of(2023, 1, i, 10, 15)));
+        }
+        Pageable pagebale = PageRequest.of(0, 2);
+
+        Mockito.when(itemDao.findByOwnerIdOrderById(1, pagebale)).thenReturn(List.of(item1, item2));
+        Mockito.when(commentDao.findLastCommentIdsByItemIds(List.of(1, 2), 2)).thenReturn(List.of(3, 2));
+        Mockito.when(commentDao.findCommentDtosByIds(List.of(3, 2))).thenReturn(comments);
+        Mockito.when(commentDao.countByItemIds(List.of(1, 2))).thenReturn(List.of(new ItemCountDto(1, 3)));
+
+        List<ItemDtoPers> result = itemService.findItemsByUserId(0, 2, 1);
+
+        assertEquals(2, result.get(0).getComments().size());
+        assertEquals(2, result.get(0).getComments().get(0).getId());
+        assertEquals(3, result.get(0).getCommentsCount());
+        assertTrue(result.get(1).getComments().isEmpty());
+        assertEquals(0, result.get(1).getCommentsCount());
+    }
+
+    @Test
+    void shouldRejectNegativeCommentsLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new ItemServiceImpl(itemDao, bookingDao, commentDao,
+                summaryStore, itemSearch, searchCache, nameTrie, detailCache, userService, -1));
+    }
+
+    @Test
+    void shouldValidateSuggestPrefixAndSize() {
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
+
+        assertThrows(ValidationException.class, () -> itemService.suggestItemNames("д".repeat(51), 10));
+        assertThrows(ValidationException.class, () -> itemService.suggestItemNames("др", 0));
+        assertThrows(ValidationException.class, () -> itemService.suggestItemNames("др", 101));
+        assertEquals(Collections.emptyList(), itemService.suggestItemNames(" ", 10));
+        Mockito.verifyNoInteractions(nameTrie);
     }
 
     @Test
     void shouldSearchItemsByTextWithPagination() {
         int from = 0;
         int size = 2;
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         Item item = new Item(1, 1, "item", "description", true, null);
 
-        Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
-        Page<Item> pages = new PageImpl<>(Collections.singletonList(item), pagebale, Collections.singletonList(item).size());
-
-        Mockito.when(itemDao.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase("Item", "Item", pagebale))
-                .thenReturn(pages);
+        Mockito.when(itemSearch.search("Item", from, size)).thenReturn(Collections.singletonList(item));
         List<ItemDto> result = itemService.searchItemsByText(from, size, "Item");
 
         assertTrue(result.size() == 1);
@@ -281,9 +344,31 @@ class ItemServiceImplUnitTest {
         assertTrue(result.get(0).getRequestId() == null);
     }
 
+    @Test
+    void shouldCacheSearchResultsUntilItemIsAdded() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                new ItemSearchCache(meterRegistry, 100), nameTrie, detailCache, userService, 10);
+        Item item = new Item(1, 1, "item", "description", true, null);
+        Mockito.when(itemSearch.search(any(), any(), any())).thenReturn(Collections.singletonList(item));
+        Mockito.when(userService.isExist(1)).thenReturn(true);
+        Mockito.when(itemDao.save(any(Item.class))).thenReturn(new Item(2, 1, "item2", "item2", true, null));
+
+        itemService.searchItemsByText(0, 2, "Item");
+        itemService.searchItemsByText(0, 2, "iTEM");
+        itemService.addItem(new ItemDto(0, 1, "item2", "item2", true, null), 1);
+        itemService.searchItemsByText(0, 2, "item");
+
+        Mockito.verify(itemSearch, Mockito.times(1)).search("Item", 0, 2);
+        Mockito.verify(itemSearch, Mockito.times(1)).search("item", 0, 2);
+        assertEquals(1, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(2, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
     @Test
     void shouldAddComment() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         Item item1 = new Item(1, 1, "item1", "item1", true, null);
         Item item2 = new Item(2, 1, "item2", "item2", true, null);
         User booker = new User(3, "op@pa.ru", "booker");
@@ -304,14 +389,16 @@ class ItemServiceImplUnitTest {
 
     @Test
     void shouldThrowValidationExceptionIfTextIsEmptyInAddComment() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
 
         assertThrows(ValidationException.class, () -> itemService.addComment(3, 1, new CommentDto(0, "", null, null)));
     }
 
     @Test
     void shouldThrowValidationExceptionIfBookingIsEmptyInAddComment() {
-        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, userService);
+        ItemService itemService = new ItemServiceImpl(itemDao, bookingDao, commentDao, summaryStore, itemSearch,
+                searchCache, nameTrie, detailCache, userService, 10);
         Mockito.when(bookingDao.findAllByBooker(2)).thenReturn(Collections.emptyList());
 
         assertThrows(ValidationException.class, () -> itemService.addComment(2, 1, new CommentDto(0, "comment", null, null)));
@@ -13,6 +13,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestRespDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -28,6 +29,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -183,6 +185,24 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$[0].items", is(irResp.getItems())));
     }
 
+    @Test
+    void shouldGetAllItemRequestsAfterCursorWithNextCursor() throws Exception {
+        ItemRequestRespDto irResp = new ItemRequestRespDto(3, "description", created, null);
+        String after = Cursor.encode(created.plusHours(1), 5);
+        when(service.getAllItemRequestsAfter(after, 1, 1)).thenReturn(Collections.singletonList(irResp));
+
+        mvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("after", after)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", Cursor.encode(created, 3)))
+                .andExpect(jsonPath("$[0].id", is(3)));
+    }
+
     @Test
     void shouldThrowExceptionInGetAllItemRequests() throws Exception {
         when(service.getAllItemRequests(anyInt(), anyInt(), anyInt())).thenThrow(new RuntimeException("Что то пошло не так"));
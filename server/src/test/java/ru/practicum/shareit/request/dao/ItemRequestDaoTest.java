@@ -3,6 +3,8 @@ package ru.practicum.shareit.request.dao;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.model.User;
@@ -22,6 +24,9 @@ class ItemRequestDaoTest {
     @Autowired
     UserDao userDao;
 
+    @Autowired
+    TestEntityManager em;
+
     @Test
     void shouldSaveRequest() {
         User user = prepareUser("op@pa.ru", "user");
@@ -49,6 +54,31 @@ class ItemRequestDaoTest {
         assertEquals(requests.get(4).getCreated(), response.get(0).getCreated());
     }
 
+    @Test
+    void shouldReturnFullPagesOfOtherUsersRequests() {
+        User user = prepareUser("op@pa.ru", "user");
+        User other = prepareUser("po@ap.ru", "other");
+        List<ItemRequest> own = prepareItemRequests(user, null);
+        List<ItemRequest> others = prepareItemRequests(other, null);
+        em.flush();
+        em.clear();
+
+        List<ItemRequest> firstPage = itemRequestDao.findByRequestorIdNotOrderByCreatedDescIdDesc(user.getId(),
+                PageRequest.of(0, 3));
+        ItemRequest last = firstPage.get(2);
+        List<ItemRequest> nextPage = itemRequestDao.findOthersAfter(user.getId(), last.getCreated(), last.getId(),
+                PageRequest.of(0, 3));
+
+        assertEquals(3, firstPage.size());
+        assertEquals(others.get(4).getId(), firstPage.get(0).getId());
+        assertEquals(2, nextPage.size());
+        assertEquals(others.get(1).getId(), nextPage.get(0).getId());
+        assertEquals(others.get(0).getId(), nextPage.get(1).getId());
+        assertTrue(own.stream().map(ItemRequest::getId)
+                .noneMatch(id -> firstPage.stream().anyMatch(ir -> ir.getId() == id)
+                        || nextPage.stream().anyMatch(ir -> ir.getId() == id)));
+    }
+
     private User prepareUser(String email, String name) {
         List<User> users = userDao.findAll();
 
@@ -7,8 +7,10 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.ItemDao;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dao.ItemRequestDao;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestRespDto;
@@ -154,12 +156,12 @@ class ItemRequestServiceImplUnitTest {
         requests.add(new ItemRequest(4, "description4", 4, created.plusHours(2)));
         requests.add(new ItemRequest(5, "description5", 1, created.plusHours(1)));
 
-        Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size, Sort.by("created").descending());
-        Page<ItemRequest> pages = new PageImpl<>(requests, pagebale, requests.size());
+        Pageable pagebale = PageRequest.of(from > 0 ? from / size : 0, size);
 
         ItemRequestServiceImpl service = new ItemRequestServiceImpl(mockUserService, mockItemRequestDao, mockItemDao);
-        Mockito.when(mockItemDao.findAll()).thenReturn(items);
-        Mockito.when(mockItemRequestDao.findAll(pagebale)).thenReturn(pages);
+        Mockito.when(mockItemDao.findItemsByRequestIds(List.of(2, 3, 4))).thenReturn(items.subList(2, 4));
+        Mockito.when(mockItemRequestDao.findByRequestorIdNotOrderByCreatedDescIdDesc(1, pagebale))
+                .thenReturn(requests.subList(1, 4));
 
         List<ItemRequestRespDto> result = service.getAllItemRequests(from, size, 1);
 
@@ -167,6 +169,35 @@ class ItemRequestServiceImplUnitTest {
         assertEquals(2, result.get(0).getId());
         assertEquals(3, result.get(1).getId());
         assertEquals(4, result.get(2).getId());
+        assertEquals(3, result.get(0).getItems().get(0).getId());
+        assertEquals(4, result.get(1).getItems().get(0).getId());
+        assertEquals(0, result.get(2).getItems().size());
+        Mockito.verify(mockItemDao, Mockito.never()).findAll();
+    }
+
+    @Test
+    void shouldReturnAllItemRequestsForUserAfterCursor() {
+        List<ItemRequest> requests = new ArrayList<>();
+        requests.add(new ItemRequest(3, "description3", 2, created.plusHours(3)));
+        requests.add(new ItemRequest(4, "description4", 4, created.plusHours(2)));
+
+        ItemRequestServiceImpl service = new ItemRequestServiceImpl(mockUserService, mockItemRequestDao, mockItemDao);
+        Mockito.when(mockItemRequestDao.findOthersAfter(1, created.plusHours(4), 2, PageRequest.of(0, 2)))
+                .thenReturn(requests);
+
+        List<ItemRequestRespDto> result = service.getAllItemRequestsAfter(
+                Cursor.encode(created.plusHours(4), 2), 2, 1);
+
+        assertEquals(2, result.size());
+        assertEquals(3, result.get(0).getId());
+        assertEquals(4, result.get(1).getId());
+    }
+
+    @Test
+    void shouldThrowValidationExceptionForMalformedCursor() {
+        ItemRequestServiceImpl service = new ItemRequestServiceImpl(mockUserService, mockItemRequestDao, mockItemDao);
+
+        assertThrows(ValidationException.class, () -> service.getAllItemRequestsAfter("???", 2, 1));
     }
 
 
@@ -6,11 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -18,11 +21,17 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.constants.Constatnts.NEXT_CURSOR;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -76,6 +85,34 @@ class UserControllerTest {
                 .andExpect(status().is(400));
     }
 
+    @Test
+    void shouldReturnConflictForDuplicateEmailInAddUser() throws Exception {
+        UserDto userDtoReq = new UserDto(0, "op@pa.ru", "user");
+
+        when(service.addUser(userDtoReq)).thenThrow(new ConflictException("Пользователь с таким email уже существует"));
+
+        mvc.perform(post("/users")
+                        .content(mapper.writeValueAsString(userDtoReq))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldReturnConflictForUniqueConstraintViolationInAddUser() throws Exception {
+        UserDto userDtoReq = new UserDto(0, "op@pa.ru", "user");
+
+        when(service.addUser(userDtoReq)).thenThrow(new DataIntegrityViolationException("uq_user_email"));
+
+        mvc.perform(post("/users")
+                        .content(mapper.writeValueAsString(userDtoReq))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void shouldThrowExceptionInAddUser() throws Exception {
         UserDto userDtoReq = new UserDto(0, "op@pa.ru", "user");
@@ -96,19 +133,40 @@ class UserControllerTest {
     void getAllUsers() throws Exception {
         UserDto userDtoResp = new UserDto(1, "op@pa.ru", "user");
 
-        when(service.getAllUsers()).thenReturn(Collections.singletonList(userDtoResp));
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(userDtoResp);
+            return null;
+        }).when(service).forEachUser(any());
 
-        mvc.perform(get("/users")
-                        .content("")
+        MvcResult result = mvc.perform(get("/users")
                         .characterEncoding(StandardCharsets.UTF_8)
-                        .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id", is(userDtoResp.getId()), Integer.class))
                 .andExpect(jsonPath("$[0].email", is(userDtoResp.getEmail())))
                 .andExpect(jsonPath("$[0].name", is(userDtoResp.getName())));
     }
 
+    @Test
+    void getUsersPage() throws Exception {
+        UserDto userDtoResp = new UserDto(1, "op@pa.ru", "user");
+
+        when(service.getUsersAfter(0, 1)).thenReturn(Collections.singletonList(userDtoResp));
+
+        mvc.perform(get("/users")
+                        .param("size", "1")
+                        .param("after", "0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR, "1"))
+                .andExpect(jsonPath("$[0].id", is(userDtoResp.getId()), Integer.class));
+    }
+
     @Test
     void updateUser() throws Exception {
         UserDto userDtoReq = new UserDto(0, "op@pa.ru", "user");
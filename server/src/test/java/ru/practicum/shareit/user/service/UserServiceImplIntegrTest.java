@@ -4,7 +4,10 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -18,6 +21,7 @@ import java.util.List;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.constants.Constatnts.USERS_CACHE;
 
 @Transactional
 @SpringBootTest(
@@ -32,6 +36,9 @@ public class UserServiceImplIntegrTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Test
     void addUser() {
         UserDto user = new UserDto(0, "op@pa.ru", "user1");
@@ -52,12 +59,35 @@ public class UserServiceImplIntegrTest {
 
         userDao.saveAll(users);
 
-        List<UserDto> ud = userService.getAllUsers();
+        List<UserDto> ud = new ArrayList<>();
+        userService.forEachUser(ud::add);
         assertThat(ud.size(), equalTo(2));
         assertThat(ud.get(0).getEmail(), equalTo("op@pa.ru"));
         assertThat(ud.get(1).getEmail(), equalTo("po@ap.ru"));
     }
 
+    @Test
+    void shouldThrowConflictExceptionForDuplicateEmail() {
+        userService.addUser(new UserDto(0, "op@pa.ru", "user1"));
+        UserDto other = userService.addUser(new UserDto(0, "po@ap.ru", "user2"));
+
+        assertThrows(ConflictException.class, () -> userService.addUser(new UserDto(0, "op@pa.ru", "user3")));
+        assertThrows(ConflictException.class,
+                () -> userService.updateUser(new UserDto(0, "op@pa.ru", null), other.getId()));
+        assertThat(userService.updateUser(new UserDto(0, "po@ap.ru", "user2"), other.getId()).getEmail(),
+                equalTo("po@ap.ru"));
+    }
+
+    @Test
+    void getUsersAfter() {
+        List<User> users = userDao.saveAll(List.of(new User(0, "op@pa.ru", "user1"),
+                new User(0, "po@ap.ru", "user2"), new User(0, "ap@op.ru", "user3")));
+
+        List<UserDto> ud = userService.getUsersAfter(users.get(0).getId(), 1);
+        assertThat(ud.size(), equalTo(1));
+        assertThat(ud.get(0).getEmail(), equalTo("po@ap.ru"));
+    }
+
     @Test
     void updateUser() {
         UserDto user = new UserDto(0, "op@pa.ru", "user1");
@@ -109,4 +139,32 @@ public class UserServiceImplIntegrTest {
         boolean isExist = userService.isExist(result.getId());
         assertThat(isExist, equalTo(true));
     }
+
+    @Test
+    void findUserByIdServesRepeatedReadsFromCache() {
+        UserDto saved = userService.addUser(new UserDto(0, "op@pa.ru", "user1"));
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(USERS_CACHE);
+        long hits = cache.getNativeCache().stats().hitCount();
+
+        userService.findUserById(saved.getId());
+        userDao.deleteAll();
+        UserDto cached = userService.findUserById(saved.getId());
+
+        assertThat(cached.getName(), equalTo("user1"));
+        assertThat(cache.getNativeCache().stats().hitCount(), equalTo(hits + 1));
+    }
+
+    @Test
+    void updateAndDeleteUserRefreshCachedUser() {
+        UserDto saved = userService.addUser(new UserDto(0, "op@pa.ru", "user1"));
+        userService.findUserById(saved.getId());
+
+        userService.updateUser(new UserDto(0, null, "user upd"), saved.getId());
+        UserDto updated = userService.findUserById(saved.getId());
+        userService.deleteUserById(saved.getId());
+
+        assertThat(updated.getName(), equalTo("user upd"));
+        assertThat(updated.getEmail(), equalTo("op@pa.ru"));
+        assertThrows(NotFoundException.class, () -> userService.findUserById(saved.getId()));
+    }
 }
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dao.UserDao;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -14,8 +16,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplUnitTest {
@@ -24,7 +25,7 @@ class UserServiceImplUnitTest {
 
     @Test
     void shouldAddUser() {
-        UserService userService = new UserServiceImpl(userDao);
+        UserService userService = userService();
         User userBefore = new User("op@pa.ru", "user1");
         User userAfter = new User(1,"op@pa.ru", "user1");
         Mockito.when(userDao.save(userBefore)).thenReturn(userAfter);
@@ -37,19 +38,19 @@ class UserServiceImplUnitTest {
 
     @Test
     void shouldGetAllUsers() {
-        UserService userService = new UserServiceImpl(userDao);
+        UserService userService = userService();
         User userAfter = new User(1,"op@pa.ru", "user1");
-        Mockito.when(userDao.findAll()).thenReturn(Collections.singletonList(userAfter));
+        Mockito.when(userDao.findAllByOrderById(PageRequest.of(1, 2))).thenReturn(Collections.singletonList(userAfter));
 
-        List<UserDto> result = userService.getAllUsers();
+        List<UserDto> result = userService.getUsers(2, 2);
 
-        Mockito.verify(userDao, Mockito.times(1)).findAll();
+        Mockito.verify(userDao, Mockito.times(1)).findAllByOrderById(PageRequest.of(1, 2));
         assertEquals(1, result.size());
     }
 
     @Test
     void shouldUpdateUser() {
-        UserService userService = new UserServiceImpl(userDao);
+        UserService userService = userService();
         User userBefore = new User("op@pa.ru", "user1");
         User userAfter = new User(1,"op@pa.ru", "user1");
         Mockito.when(userDao.save(userBefore)).thenReturn(userAfter);
@@ -69,7 +70,7 @@ class UserServiceImplUnitTest {
 
     @Test
     void shouldReturnNotFoundExceptionIfUserIdNotFoundInUpdateUser() {
-        UserService userService = new UserServiceImpl(userDao);
+        UserService userService = userService();
         User userBefore = new User("op@pa.ru", "user1");
         User userAfter = new User(1,"op@pa.ru", "user1");
         Mockito.when(userDao.save(userBefore)).thenReturn(userAfter);
@@ -83,7 +84,7 @@ class UserServiceImplUnitTest {
 
     @Test
     void shouldFindUserById() {
-        UserService userService = new UserServiceImpl(userDao);
+        UserService userService = userService();
         User userBefore = new User("op@pa.ru", "user1");
         User userAfter = new User(1,"op@pa.ru", "user1");
         Mockito.when(userDao.save(userBefore)).thenReturn(userAfter);
@@ -102,7 +103,7 @@ class UserServiceImplUnitTest {
 
     @Test
     void shouldReturnNotFoundExceptionIfUserIdNotFoundInFindUserById() {
-        UserService userService = new UserServiceImpl(userDao);
+        UserService userService = userService();
         User userBefore = new User("op@pa.ru", "user1");
         User userAfter = new User(1,"op@pa.ru", "user1");
         Mockito.when(userDao.save(userBefore)).thenReturn(userAfter);
@@ -116,7 +117,7 @@ class UserServiceImplUnitTest {
 
     @Test
     void shouldDeleteUser() {
-        UserService userService = new UserServiceImpl(userDao);
+        UserService userService = userService();
         User userBefore = new User("op@pa.ru", "user1");
         User userAfter = new User(1,"op@pa.ru", "user1");
         Mockito.when(userDao.save(userBefore)).thenReturn(userAfter);
@@ -130,4 +131,65 @@ class UserServiceImplUnitTest {
 
         assertThrows(NotFoundException.class, () -> userService.findUserById(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldCacheExistingUserIdInIsExist() {
+        UserService userService = userService();
+        Mockito.when(userDao.existsById(1)).thenReturn(true);
+
+        assertTrue(userService.isExist(1));
+        assertTrue(userService.isExist(1));
+
+        Mockito.verify(userDao, Mockito.times(1)).existsById(1);
+        Mockito.verify(userDao, Mockito.never()).findById(1);
+    }
+
+    @Test
+    void shouldForgetUserIdAfterDeleteUserById() {
+        UserService userService = userService();
+        Mockito.when(userDao.existsById(1)).thenReturn(true, false);
+
+        assertTrue(userService.isExist(1));
+        userService.deleteUserById(1);
+
+        assertFalse(userService.isExist(1));
+        Mockito.verify(userDao, Mockito.times(2)).existsById(1);
+    }
+
+    @Test
+    void shouldSkipEmailLookupForNewEmailInAddUser() {
+        UserService userService = userService();
+        User userBefore = new User("op@pa.ru", "user1");
+        Mockito.when(userDao.save(userBefore)).thenReturn(new User(1, "op@pa.ru", "user1"));
+
+        userService.addUser(new UserDto(0, "op@pa.ru", "user1"));
+
+        Mockito.verify(userDao, Mockito.never()).existsByEmail("op@pa.ru");
+    }
+
+    @Test
+    void shouldThrowConflictExceptionForDuplicateEmailInAddUser() {
+        UserService userService = userService();
+        User userBefore = new User("op@pa.ru", "user1");
+        Mockito.when(userDao.save(userBefore)).thenReturn(new User(1, "op@pa.ru", "user1"));
+        userService.addUser(new UserDto(0, "op@pa.ru", "user1"));
+        Mockito.when(userDao.existsByEmail("op@pa.ru")).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> userService.addUser(new UserDto(0, "op@pa.ru", "user2")));
+        Mockito.verify(userDao, Mockito.times(1)).save(Mockito.any());
+    }
+
+    @Test
+    void shouldRecheckDatabaseAfterIdCacheTtl() {
+        UserIdCache idCache = new UserIdCache(userDao, 100, 0);
+        Mockito.when(userDao.existsById(1)).thenReturn(true, false);
+
+        assertTrue(idCache.exists(1));
+        assertFalse(idCache.exists(1));
+        Mockito.verify(userDao, Mockito.times(2)).existsById(1);
+    }
+
+    private UserService userService() {
+        return new UserServiceImpl(userDao, new UserIdCache(userDao, 100, 60000), new UserEmailFilter(userDao));
+    }
+}